@@ -0,0 +1,54 @@
+package io.github.livingdocumentation.benchmarks;
+
+import io.github.livingdocumentation.dotdiagram.DotGraph;
+import io.github.livingdocumentation.maven.ClassIndex;
+import io.github.livingdocumentation.maven.DiagramRenderer;
+import io.github.livingdocumentation.maven.commons.ClassModel;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Classifying the classes into the hexagon, the clusters and the others, then building and rendering
+ * the graph of their associations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DiagramBenchmark {
+
+    @Param({ "10", "100", "1000" })
+    private int classes;
+
+    private List<ClassModel> models;
+    private ClassIndex index;
+
+    @Setup
+    public void setUp() {
+        models = Synthetic.classModels(classes);
+        index = classify();
+    }
+
+    @Benchmark
+    public ClassIndex classify() {
+        final ClassIndex index = new ClassIndex(Synthetic.PREFIX, "domain", Synthetic.CLUSTERS, new String[0]);
+        for (ClassModel model : models) {
+            index.add(model.getPackageName(), model.getSimpleName(), () -> model);
+        }
+        return index;
+    }
+
+    @Benchmark
+    public DotGraph buildGraph() {
+        return DiagramRenderer.toGraph(index);
+    }
+
+    @Benchmark
+    public String renderGraph() {
+        return DiagramRenderer.toGraph(index).render();
+    }
+}
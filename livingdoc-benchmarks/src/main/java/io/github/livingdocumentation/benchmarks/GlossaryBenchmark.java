@@ -0,0 +1,61 @@
+package io.github.livingdocumentation.benchmarks;
+
+import io.github.livingdocumentation.maven.GlossaryRenderer;
+import io.github.livingdocumentation.maven.commons.SourceClass;
+import io.github.livingdocumentation.maven.commons.SourceModel;
+import org.apache.maven.plugin.MojoExecutionException;
+import io.github.livingdocumentation.maven.commons.SourceParser;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generating the AsciiDoc glossary out of the model of the sources, parsed beforehand, and parsing the sources
+ * on one worker or on all the cores. The html conversion is left out: it measures Asciidoctor rather than the
+ * plugin.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GlossaryBenchmark {
+
+    @Param({ "10", "100", "1000" })
+    private int classes;
+
+    private File directory;
+    private SourceModel model;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Synthetic.temporaryDirectory();
+        model = Synthetic.sourceModel(new File(directory, "src"), classes);
+        model.getClasses();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Synthetic.delete(directory);
+    }
+
+    @Benchmark
+    public void render() throws MojoExecutionException {
+        new GlossaryRenderer.Builder(new File(directory, "docs")).format("adoc").build().render(model);
+    }
+
+    @Benchmark
+    public List<SourceClass> parse() {
+        return SourceParser.parse(model.getFiles(), 1, new SystemStreamLog());
+    }
+
+    @Benchmark
+    public List<SourceClass> parseParallel() {
+        return SourceParser.parse(model.getFiles(), Runtime.getRuntime().availableProcessors(), new SystemStreamLog());
+    }
+}
@@ -0,0 +1,65 @@
+package io.github.livingdocumentation.benchmarks;
+
+import io.github.livingdocumentation.maven.GuidedTourRenderer;
+import io.github.livingdocumentation.maven.commons.SourceClass;
+import io.github.livingdocumentation.maven.commons.SourceModel;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collecting the steps of the guided tours out of the model of the sources, parsed beforehand.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GuidedTourBenchmark {
+
+    @Param({ "10", "100", "1000" })
+    private int classes;
+
+    private File directory;
+    private List<SourceClass> sourceClasses;
+
+    /**
+     * Exposes the processing of a single class
+     */
+    private static class Steps extends GuidedTourRenderer {
+
+        Steps(File outputDirectory) {
+            super(new Builder(Synthetic.PREFIX, Synthetic.TOUR_ANNOTATION, outputDirectory)
+                    .repositoryLink("http://example.org"));
+        }
+
+        void processAll(List<SourceClass> classes) {
+            for (SourceClass sourceClass : classes) {
+                process(sourceClass);
+            }
+        }
+    }
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Synthetic.temporaryDirectory();
+        final SourceModel model = Synthetic.sourceModel(directory, classes);
+        sourceClasses = model.getClasses();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Synthetic.delete(directory);
+    }
+
+    @Benchmark
+    public GuidedTourRenderer process() {
+        final Steps steps = new Steps(directory);
+        steps.processAll(sourceClasses);
+        return steps;
+    }
+}
@@ -0,0 +1,119 @@
+package io.github.livingdocumentation.benchmarks;
+
+import io.github.livingdocumentation.maven.commons.ClassModel;
+import io.github.livingdocumentation.maven.commons.SourceModel;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Synthetic hexagonal project: classes spread over the domain, infra and app packages, the domain ones
+ * in the glossary and every tenth one a step of a guided tour.
+ */
+final class Synthetic {
+
+    static final String PREFIX = "com.acme";
+    static final String[] CLUSTERS = { "infra" };
+    static final String TOUR_ANNOTATION = "com.acme.domain.Tour";
+
+    private static final String[] LAYERS = { "domain", "infra", "app" };
+
+    private Synthetic() {
+    }
+
+    static String packageName(int i) {
+        return PREFIX + "." + LAYERS[i % LAYERS.length];
+    }
+
+    static String className(int i) {
+        return packageName(i) + ".Entity" + i;
+    }
+
+    /**
+     * @return the source of the i-th class
+     */
+    static String source(int i) {
+        final StringBuilder source = new StringBuilder();
+        source.append("package ").append(packageName(i)).append(";\n\n");
+        source.append("/**\n * Entity number ").append(i)
+                .append(" of the synthetic domain, trained by a trainer to reach a higher level.\n */\n");
+        if (i % LAYERS.length == 0) {
+            source.append("@Glossary\n");
+        }
+        if (i % 10 == 0) {
+            source.append("@").append(TOUR_ANNOTATION).append("(name = \"Tour ").append(i % 5)
+                    .append("\", rank = ").append(i).append(", description = \"Step ").append(i).append("\")\n");
+        }
+        source.append("public class Entity").append(i).append(" {\n");
+        if (i > 0) {
+            source.append("    private ").append(className(i - 1)).append(" previous;\n");
+        }
+        source.append("    private String name;\n    private int level;\n\n");
+        source.append("    public Entity").append(i).append(" evolve(int levels) {\n");
+        source.append("        this.level = level + levels; // evolve the entity\n        return this;\n    }\n");
+        source.append("}\n");
+        return source.toString();
+    }
+
+    /**
+     * @return the sources of the classes, one after the other
+     */
+    static String sources(int classes) {
+        final StringBuilder sources = new StringBuilder();
+        for (int i = 0; i < classes; i++) {
+            sources.append(source(i));
+        }
+        return sources.toString();
+    }
+
+    /**
+     * Writes the sources of the classes under the directory.
+     */
+    static SourceModel sourceModel(File directory, int classes) throws IOException {
+        for (int i = 0; i < classes; i++) {
+            final File file = new File(directory, className(i).replace('.', File.separatorChar) + ".java");
+            Files.createDirectories(file.getParentFile().toPath());
+            Files.write(file.toPath(), source(i).getBytes(Charset.defaultCharset()));
+        }
+        return SourceModel.scan(Collections.singletonList(directory.getPath()), new SystemStreamLog());
+    }
+
+    /**
+     * @return the models of the classes: each one has a field of the previous class, the infra classes
+     * implement a domain class
+     */
+    static List<ClassModel> classModels(int classes) {
+        final List<ClassModel> models = new ArrayList<>();
+        for (int i = 0; i < classes; i++) {
+            final List<String> fieldTypes = i > 0 ? Arrays.asList(className(i - 1), "java.lang.String")
+                    : Collections.singletonList("java.lang.String");
+            final List<String> interfaces = i % LAYERS.length == 1 ? Collections.singletonList(className(i - 1))
+                    : Collections.<String>emptyList();
+            models.add(new ClassModel(className(i), fieldTypes, interfaces));
+        }
+        return models;
+    }
+
+    static File temporaryDirectory() throws IOException {
+        return Files.createTempDirectory("livingdoc-benchmarks").toFile();
+    }
+
+    static void delete(File directory) throws IOException {
+        if (directory == null || !directory.exists()) {
+            return;
+        }
+        try (Stream<Path> walk = Files.walk(directory.toPath())) {
+            walk.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+}
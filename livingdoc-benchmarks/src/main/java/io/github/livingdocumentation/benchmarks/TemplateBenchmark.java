@@ -0,0 +1,76 @@
+package io.github.livingdocumentation.benchmarks;
+
+import io.github.livingdocumentation.maven.commons.SimpleTemplate;
+import io.github.livingdocumentation.maven.commons.Template;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import static io.github.livingdocumentation.maven.commons.Template.text;
+
+/**
+ * Reading a template from the plugin, filling it with contents of several sizes and writing the page, with
+ * the compiled {@link Template} and the former {@link SimpleTemplate}.
+ */
+@SuppressWarnings("deprecation")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TemplateBenchmark {
+
+    @Param({ "1000", "100000", "1000000" })
+    private int contentLength;
+
+    private String template;
+    private String content;
+    private String page;
+    private File directory;
+
+    @Setup
+    public void setUp() throws IOException {
+        template = SimpleTemplate.readResource("/wordcloud-template.html");
+        final StringBuilder content = new StringBuilder(contentLength);
+        while (content.length() < contentLength) {
+            content.append("{\"text\": \"pokemon\", \"size\": 42.0}, ");
+        }
+        this.content = content.substring(0, contentLength);
+        page = SimpleTemplate.evaluate(template, "Word Cloud", this.content);
+        directory = Synthetic.temporaryDirectory();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Synthetic.delete(directory);
+    }
+
+    @Benchmark
+    public String evaluateCompiled() {
+        return Template.of("/wordcloud-template.html").evaluate("Word Cloud", content);
+    }
+
+    @Benchmark
+    public void writeCompiled() throws IOException {
+        Template.of("/wordcloud-template.html").write(new File(directory, "wordcloud.html"), text("Word Cloud"),
+                text(content));
+    }
+
+    @Benchmark
+    public String readResource() {
+        return SimpleTemplate.readResource("/wordcloud-template.html");
+    }
+
+    @Benchmark
+    public String evaluate() {
+        return SimpleTemplate.evaluate(template, "Word Cloud", content);
+    }
+
+    @Benchmark
+    public void write() throws IOException {
+        SimpleTemplate.write(directory.getPath(), "wordcloud.html", page);
+    }
+}
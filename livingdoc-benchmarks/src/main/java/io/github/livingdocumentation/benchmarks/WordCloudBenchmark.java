@@ -0,0 +1,48 @@
+package io.github.livingdocumentation.benchmarks;
+
+import io.github.livingdocumentation.maven.WordCloudRenderer;
+import io.github.livingdocumentation.maven.commons.TermCounts;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tokenizing and counting the words of the sources, then turning the counts into the JSON of the cloud.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WordCloudBenchmark {
+
+    @Param({ "10", "100", "1000" })
+    private int classes;
+
+    private char[] sources;
+    private char[] buffer;
+    private TermCounts counts;
+
+    @Setup
+    public void setUp() {
+        sources = Synthetic.sources(classes).toCharArray();
+        buffer = new char[sources.length];
+        counts = new TermCounts();
+        WordCloudRenderer.filter(sources.clone(), sources.length, counts);
+    }
+
+    @Benchmark
+    public TermCounts filter() {
+        // the filter lower-cases the buffer in place
+        System.arraycopy(sources, 0, buffer, 0, sources.length);
+        final TermCounts result = new TermCounts();
+        WordCloudRenderer.filter(buffer, buffer.length, result);
+        return result;
+    }
+
+    @Benchmark
+    public String toJSON() {
+        return WordCloudRenderer.toJSON(counts, 50. / counts.max());
+    }
+}
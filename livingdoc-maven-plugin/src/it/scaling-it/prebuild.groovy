@@ -0,0 +1,101 @@
+// Generates a synthetic hexagonal project: bounded contexts spread over a deep package tree, each with
+// domain classes in the glossary, repositories implemented in the infra cluster and application services.
+// Some domain classes are steps of guided tours. The size is given by the scalingClasses variable.
+
+def classes = scalingClasses as int
+def depth = scalingDepth as int
+def classesPerContext = 30
+def sources = new File(basedir, "src/main/java")
+
+def write = { String packageName, String name, String content ->
+    def dir = new File(sources, packageName.replace('.', '/'))
+    dir.mkdirs()
+    new File(dir, name + ".java").text = "package " + packageName + ";\n\n" + content
+}
+
+write("com.acme.annotations", "Glossary", """import java.lang.annotation.*;
+
+@Retention(RetentionPolicy.SOURCE)
+public @interface Glossary {
+}
+""")
+write("com.acme.annotations", "Tour", """import java.lang.annotation.*;
+
+@Retention(RetentionPolicy.SOURCE)
+public @interface Tour {
+    String name();
+    int rank();
+    String description();
+}
+""")
+
+def contexts = 0
+def generated = 0
+def glossary = 0
+for (int c = 0; generated < classes; c++) {
+    contexts++
+    // com.acme.c0.p0.p0 ... as deep as configured
+    def context = "com.acme.c" + c + (1..<depth).collect { ".p" + (c % (it + 2)) }.join("")
+    def entities = Math.max(1, (int) ((classesPerContext - 2) / 3))
+    for (int e = 0; e < entities && generated < classes; e++) {
+        def tour = (generated % 50 == 0) ?
+                "@com.acme.annotations.Tour(name = \"Tour ${c % 10}\", rank = ${generated}, description = \"Meet entity ${e} of context ${c}\")\n" : ""
+        def previous = e > 0 ? "    private Entity${e - 1} previous;\n" : ""
+        write(context + ".domain", "Entity" + e, """import com.acme.annotations.Glossary;
+import java.util.List;
+
+/**
+ * Entity ${e} of the context ${c}, with a name and a level that grows when it evolves.
+ */
+@Glossary
+${tour}public class Entity${e} {
+${previous}    private String name;
+    private int level;
+    private List<String> tags;
+
+    public Entity${e} evolve(int levels) {
+        level = level + levels;
+        return this;
+    }
+}
+""")
+        glossary++
+        generated++
+        if (generated >= classes) break
+        write(context + ".domain", "Entity${e}Repository", """/**
+ * Where the entities ${e} of the context ${c} are kept
+ */
+public interface Entity${e}Repository {
+    Entity${e} find(String name);
+}
+""")
+        generated++
+        if (generated >= classes) break
+        write(context + ".infra", "JdbcEntity${e}Repository", """import ${context}.domain.Entity${e};
+import ${context}.domain.Entity${e}Repository;
+
+public class JdbcEntity${e}Repository implements Entity${e}Repository {
+    private String table = "entity_${e}";
+
+    public Entity${e} find(String name) {
+        return null;
+    }
+}
+""")
+        generated++
+    }
+    if (generated < classes) {
+        write(context + ".app", "Service", """import ${context}.domain.Entity0Repository;
+
+public class Service {
+    private Entity0Repository repository;
+}
+""")
+        generated++
+    }
+}
+
+new File(basedir, "scaling.properties").text = "classes=" + generated + "\nglossary=" + glossary +
+        "\nstart=" + System.currentTimeMillis() + "\n"
+println "Generated " + generated + " classes in " + contexts + " contexts"
+return true
@@ -0,0 +1,20 @@
+// Checks the documents of the synthetic project and that the build, compilation included, stayed within
+// the time budget. The heap budget is enforced by invoker.mavenOpts.
+
+def scaling = new Properties()
+new File(basedir, "scaling.properties").withInputStream { scaling.load(it) }
+def elapsed = System.currentTimeMillis() - (scaling.start as long)
+def classes = scaling.classes as int
+def budget = (scalingMillisPerClass as long) * classes + 60000
+
+def docs = new File(basedir, "target/generated-docs")
+["glossary.adoc", "wordcloud.html", "livinggdiagram.html", "Tour_0.html"].each {
+    assert new File(docs, it).isFile(): "missing " + it
+}
+
+def entries = new File(docs, "glossary.adoc").readLines().count { it.startsWith("== ") }
+assert entries == (scaling.glossary as int): "expected " + scaling.glossary + " glossary entries, found " + entries
+
+println "Documented " + classes + " classes in " + elapsed + " ms, budget " + budget + " ms"
+assert elapsed <= budget: "the build took " + elapsed + " ms, more than the budget of " + budget + " ms"
+return true
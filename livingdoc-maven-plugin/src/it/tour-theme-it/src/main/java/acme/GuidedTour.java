@@ -0,0 +1,16 @@
+package acme;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.SOURCE)
+public @interface GuidedTour {
+    String name();
+
+    String description() default "";
+
+    int rank() default 0;
+}
@@ -0,0 +1,9 @@
+package acme;
+
+/**
+ A little pet with a pv and hp
+ */
+@GuidedTour(name = "Pokedex", description = "The pets of the trainers", rank = 1)
+public class Pokemon {
+
+}
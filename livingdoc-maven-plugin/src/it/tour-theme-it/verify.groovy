@@ -0,0 +1,5 @@
+import java.io.*;
+
+def log = new File(basedir, "build.log").text
+
+return log.contains("Unknown theme pink") && !new File(basedir, "target" + File.separator + "generated-docs").exists();
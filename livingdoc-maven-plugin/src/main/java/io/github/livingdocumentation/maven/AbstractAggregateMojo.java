@@ -0,0 +1,120 @@
+package io.github.livingdocumentation.maven;
+
+import io.github.livingdocumentation.maven.commons.Metrics;
+import io.github.livingdocumentation.maven.commons.SourceModel;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecution;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.project.MavenProject;
+
+import java.io.File;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Base of the goals that run once, on the root of the reactor, and generate a single document out of
+ * the sources or the classes of every module.
+ */
+public abstract class AbstractAggregateMojo extends AbstractMojo {
+
+    // the documents and the caches of the goals of the root project itself are kept apart
+    private static final String AGGREGATE_DIRECTORY = "aggregate";
+
+    /**
+     * The current build session (readonly)
+     */
+    @Parameter(defaultValue = "${session}", readonly = true, required = true)
+    protected MavenSession session;
+
+    /**
+     * The execution of the goal (readonly)
+     */
+    @Parameter(defaultValue = "${mojoExecution}", readonly = true, required = true)
+    protected MojoExecution mojoExecution;
+
+    /**
+     * The projects of the reactor (readonly)
+     */
+    @Parameter(defaultValue = "${reactorProjects}", readonly = true, required = true)
+    protected List<MavenProject> reactorProjects;
+
+    /**
+     * Directory where the document will be generated
+     */
+    @Parameter(defaultValue = "${project.build.directory}/generated-docs/" + AGGREGATE_DIRECTORY)
+    protected File outputDirectory;
+
+    /**
+     * Directory of the scripts and stylesheets of the pages (default: lib in the output directory)
+     */
+    @Parameter(property = "livingdoc.assetsDirectory")
+    protected File assetsDirectory;
+
+    /**
+     * Directory where the fingerprint of the inputs and the metrics are kept between two builds
+     */
+    @Parameter(defaultValue = "${project.build.directory}/livingdoc-cache")
+    protected File cacheDirectory;
+
+    /**
+     * Generate the document even when its inputs did not change since the previous build
+     */
+    @Parameter(property = "livingdoc.force", defaultValue = "false")
+    protected boolean force;
+
+    /**
+     * File where the timings and the counters of the livingdoc goals of the build are reported
+     */
+    @Parameter(defaultValue = "${project.build.directory}/livingdoc-metrics.json")
+    protected File metricsFile;
+
+    private Metrics metrics;
+
+    /**
+     * Scans the source folders of every module in parallel, and reads the files in parallel too.
+     */
+    protected SourceModel scanSources(String[] includes, String[] excludes) {
+        return scanSources(includes, excludes, true);
+    }
+
+    /**
+     * Scans the source folders of every module in parallel.
+     *
+     * @param readAll whether to read the files in parallel too, keeping their contents
+     */
+    protected SourceModel scanSources(String[] includes, String[] excludes, boolean readAll) {
+        final List<String> folders = reactorProjects.stream()
+                .map(project -> project.getBuild().getSourceDirectory())
+                .collect(Collectors.toList());
+        final SourceModel model = getMetrics().time("scan", () -> {
+            final SourceModel scanned = SourceModel.scan(folders, includes, excludes, getLog());
+            return readAll ? scanned.readAll() : scanned;
+        });
+        getMetrics().count("filesScanned", model.getFiles().size());
+        return model;
+    }
+
+    /**
+     * Renders the document, then reports the metrics of the goal
+     */
+    protected void render(Renderer renderer, SourceModel model) throws MojoExecutionException {
+        UpToDateRenderer.of(renderer, getAggregateCacheDirectory(), force, getLog()).render(model);
+        getMetrics().addAll(renderer.getMetrics()).report(cacheDirectory, metricsFile, getLog());
+    }
+
+    /**
+     * @return the directory of the caches of the aggregate goals, apart from those of the goals of the root project
+     */
+    protected File getAggregateCacheDirectory() {
+        return new File(cacheDirectory, AGGREGATE_DIRECTORY);
+    }
+
+    private Metrics getMetrics() {
+        if (metrics == null) {
+            metrics = Metrics.start(mojoExecution.getGoal());
+        }
+        return metrics;
+    }
+}
@@ -0,0 +1,302 @@
+package io.github.livingdocumentation.maven;
+
+import io.github.livingdocumentation.maven.commons.Metrics;
+import io.github.livingdocumentation.maven.commons.SharedAsciidoctor;
+import io.github.livingdocumentation.maven.commons.SourceModel;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.plugins.annotations.ResolutionScope;
+import org.apache.maven.project.MavenProject;
+
+import java.io.File;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Generates every living document at once: the sources are scanned and parsed a single time, then
+ * the glossary, guided tours, word cloud and diagram are rendered concurrently.
+ */
+@Mojo(name = "all", requiresDependencyResolution = ResolutionScope.COMPILE_PLUS_RUNTIME,
+        defaultPhase = LifecyclePhase.PROCESS_CLASSES, threadSafe = true)
+public class AllMojo extends AbstractMojo {
+
+    private static final String[] DEFAULT_EXCLUDES = new String[] { "**/package-info.java" };
+
+    /**
+     * The current build session (readonly)
+     */
+    @Parameter(defaultValue = "${session}", readonly = true, required = true)
+    protected MavenSession session;
+
+    /**
+     * The project being processed by the plugin (readonly)
+     */
+    @Parameter(defaultValue = "${project}", readonly = true, required = true)
+    protected MavenProject project;
+
+    /**
+     * List of source directories to browse
+     */
+    @Parameter(defaultValue = "${project.build.sourceDirectory}")
+    protected List<String> sources;
+
+    /**
+     * Directory where the documents will be generated
+     */
+    @Parameter(defaultValue = "${project.build.directory}/generated-docs")
+    protected File outputDirectory;
+
+    /**
+     * Maximum number of documents rendered at the same time (default: number of processors)
+     */
+    @Parameter(property = "livingdoc.threads")
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Package name prefix of classes included in the diagram and the guided tours.
+     * The diagram and the tours are skipped when not set.
+     */
+    @Parameter
+    private String prefix;
+
+    /**
+     * Output format of the glossary (default html, others : adoc)
+     */
+    @Parameter(defaultValue = "html")
+    private String format;
+
+    /**
+     * Annotation used to comment classes that will be included in the glossary (default: Glossary)
+     */
+    @Parameter(defaultValue = "Glossary")
+    private String annotation;
+
+    /**
+     * Fully qualified annotation marking classes of the guided tour. The tours are skipped when not set.
+     */
+    @Parameter
+    private String tourAnnotation;
+
+    /**
+     * Root link to CVS, used for links in generated documentation
+     */
+    @Parameter
+    private String repositoryLink;
+
+    /**
+     * Strapdown theme name (united, cerulean or bootstrap)
+     */
+    @Parameter
+    private String theme = "united";
+
+    /**
+     * List of files to include in the cloud of words. Specified as fileset patterns which are relative to
+     * the source directories.
+     */
+    @Parameter
+    private String[] includes = SourceModel.JAVA_FILES;
+
+    /**
+     * List of files to exclude from the cloud of words. Specified as fileset patterns which are relative to
+     * the source directories.
+     */
+    @Parameter
+    private String[] excludes = DEFAULT_EXCLUDES;
+
+    /**
+     * Count the words of the files in parallel on the fork-join pool
+     */
+    @Parameter(property = "livingdoc.parallel", defaultValue = "false")
+    private boolean parallel;
+
+    /**
+     * Lay the words out at build time into a static SVG, so that the page shows without d3
+     */
+    @Parameter(property = "livingdoc.wordcloud.svg", defaultValue = "false")
+    private boolean wordcloudSvg;
+
+    /**
+     * Split the html glossary into a page per initial letter
+     */
+    @Parameter(property = "livingdoc.glossary.paged", defaultValue = "false")
+    private boolean glossaryPaged;
+
+    /**
+     * Number of files parsed at a time, 0 to parse every file at once
+     */
+    @Parameter(property = "livingdoc.batchSize", defaultValue = "0")
+    private int batchSize;
+
+    /**
+     * Keep the word counts of each file between two builds and only count the words of the changed files
+     */
+    @Parameter(property = "livingdoc.incremental", defaultValue = "true")
+    private boolean incremental;
+
+    /**
+     * Directory where the word counts of each file and the fingerprints of the inputs are kept between two builds
+     */
+    @Parameter(defaultValue = "${project.build.directory}/livingdoc-cache")
+    private File cacheDirectory;
+
+    /**
+     * Generate the documents even when their inputs did not change since the previous build
+     */
+    @Parameter(property = "livingdoc.force", defaultValue = "false")
+    private boolean force;
+
+    /**
+     * File where the timings and the counters of the livingdoc goals of the build are reported
+     */
+    @Parameter(defaultValue = "${project.build.directory}/livingdoc-metrics.json")
+    private File metricsFile;
+
+    /**
+     * End of package name that contains core business domain classes
+     */
+    @Parameter(defaultValue = "domain")
+    private String coreDomain;
+
+    /**
+     * List of packages to exclude from the diagram. Specified as regexp.
+     */
+    @Parameter
+    private String[] packageExcludes = new String[0];
+
+    /**
+     * List of packages suffix to map to a cluster in diagram
+     */
+    @Parameter
+    private String[] clusters = new String[0];
+
+    /**
+     * How classes are read for the diagram: "reflection" loads every class in a class loader, "bytecode"
+     * parses the class files without loading them
+     */
+    @Parameter(property = "livingdoc.scanner", defaultValue = DiagramRenderer.REFLECTION_SCANNER)
+    private String scanner;
+
+    /**
+     * Lay the diagram out at build time into a static SVG, so that the page shows without viz.js
+     */
+    @Parameter(property = "livingdoc.diagram.svg", defaultValue = "false")
+    private boolean diagramSvg;
+
+    /**
+     * Number of nodes above which the biggest packages, then clusters, of the diagram are collapsed into nodes
+     * linking to their own diagram, 0 for no maximum
+     */
+    @Parameter(property = "livingdoc.diagram.maxNodes", defaultValue = "0")
+    private int maxNodes;
+
+    /**
+     * Number of edges above which the biggest packages, then clusters, of the diagram are collapsed, 0 for no
+     * maximum
+     */
+    @Parameter(property = "livingdoc.diagram.maxEdges", defaultValue = "0")
+    private int maxEdges;
+
+    /**
+     * Directories or jars whose classes under the prefix are drawn too, besides the output directories of the projects
+     */
+    @Parameter
+    protected File[] extraClassRoots = new File[0];
+
+    /**
+     * Directory of the scripts and stylesheets of the pages (default: lib in the output directory)
+     */
+    @Parameter(property = "livingdoc.assetsDirectory")
+    private File assetsDirectory;
+
+    @Override
+    public void execute() throws MojoExecutionException {
+        final Metrics metrics = Metrics.start("all");
+        final List<Renderer> renderers = createRenderers(true);
+        final SourceModel model = metrics.time("scan", this::scanSources);
+        metrics.count("filesScanned", model.getFiles().size());
+
+        try {
+            try (Metrics.Phase phase = metrics.phase("render")) {
+                render(renderers, model);
+            }
+            // the renderers run side by side, each one reports under its own name
+            renderers.forEach(renderer -> metrics.addAll(renderer.getName() + ".", renderer.getMetrics()));
+            metrics.report(cacheDirectory, metricsFile, getLog());
+        } finally {
+            SharedAsciidoctor.releaseAtEndOf(session);
+        }
+    }
+
+    /**
+     * @param logSkipped whether to log the documents skipped for lack of configuration
+     * @return new renderers of the documents, a renderer is only meant to render once
+     */
+    protected List<Renderer> createRenderers(boolean logSkipped) {
+        final List<Renderer> renderers = new ArrayList<>();
+        renderers.add(new GlossaryRenderer.Builder(outputDirectory).format(format).annotation(annotation)
+                .paged(glossaryPaged).assetsDirectory(assetsDirectory).batchSize(batchSize).build());
+        renderers.add(new WordCloudRenderer.Builder(getLog(), outputDirectory).includes(includes).excludes(excludes)
+                .parallel(parallel)
+                .indexFile(incremental ? new File(cacheDirectory, WordCloudRenderer.INDEX_FILENAME) : null)
+                .svg(wordcloudSvg).assetsDirectory(assetsDirectory).build());
+        if (prefix == null) {
+            if (logSkipped) {
+                getLog().info("No prefix configured, skipping the diagram and the guided tours");
+            }
+        } else {
+            renderers.add(new DiagramRenderer.Builder(Collections.singletonList(project), prefix, outputDirectory)
+                    .coreDomain(coreDomain).packageExcludes(packageExcludes).clusters(clusters).scanner(scanner)
+                    .svg(diagramSvg).budget(maxNodes, maxEdges).extraRoots(Arrays.asList(extraClassRoots))
+                    .assetsDirectory(assetsDirectory).build());
+            if (tourAnnotation == null) {
+                if (logSkipped) {
+                    getLog().info("No tourAnnotation configured, skipping the guided tours");
+                }
+            } else {
+                renderers.add(new GuidedTourRenderer.Builder(prefix, tourAnnotation, outputDirectory)
+                        .repositoryLink(repositoryLink).theme(theme).assetsDirectory(assetsDirectory)
+                        .batchSize(batchSize).build());
+            }
+        }
+        return renderers;
+    }
+
+    protected SourceModel scanSources() {
+        final Set<String> patterns = new LinkedHashSet<>(Arrays.asList(SourceModel.JAVA_FILES));
+        patterns.addAll(Arrays.asList(includes));
+        return SourceModel.scan(sources, patterns.toArray(new String[0]), new String[0], getLog());
+    }
+
+    /**
+     * Renders the documents concurrently, each one skipped when up to date
+     */
+    protected void render(List<Renderer> renderers, SourceModel model) throws MojoExecutionException {
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(threads, renderers.size())));
+        try {
+            final Map<Renderer, Future<?>> results = new LinkedHashMap<>();
+            for (Renderer renderer : renderers) {
+                results.put(renderer, executor.submit(() -> {
+                    UpToDateRenderer.of(renderer, cacheDirectory, force, getLog()).render(model);
+                    return null;
+                }));
+            }
+            for (Map.Entry<Renderer, Future<?>> result : results.entrySet()) {
+                try {
+                    result.getValue().get();
+                } catch (ExecutionException e) {
+                    throw new MojoExecutionException("Unable to generate the " + result.getKey().getName(),
+                            e.getCause());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MojoExecutionException("Interrupted while generating the documents", e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
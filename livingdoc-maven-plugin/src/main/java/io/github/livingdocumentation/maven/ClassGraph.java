@@ -0,0 +1,357 @@
+package io.github.livingdocumentation.maven;
+
+import io.github.livingdocumentation.maven.commons.ClassModel;
+
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Nodes and edges of the diagram, before they are written as a dot graph or laid out as SVG. Edges only link
+ * classes of the diagram, so that the JDK and the classes outside of the prefix are left out, and each edge is
+ * kept once with its multiplicity. Above a budget of nodes or edges, the graph is collapsed: the biggest packages
+ * first, then the biggest groups, become single nodes linking to a diagram of their own.
+ */
+public class ClassGraph {
+
+	public static final String HEXAGON = "hexagon";
+
+	public enum EdgeKind {
+		ASSOCIATION, IMPLEMENTS
+	}
+
+	public static final class Node {
+		private final String id;
+		private final String label;
+		private final String group;
+		private final String packageName;
+		private final String link;
+
+		private Node(String id, String label, String group, String packageName, String link) {
+			this.id = id;
+			this.label = label;
+			this.group = group;
+			this.packageName = packageName;
+			this.link = link;
+		}
+
+		public String getId() {
+			return id;
+		}
+
+		public String getLabel() {
+			return label;
+		}
+
+		/**
+		 * @return the name of the group, null for none
+		 */
+		public String getGroup() {
+			return group;
+		}
+
+		/**
+		 * @return the name of the diagram of a collapsed node, without extension, null for a class
+		 */
+		public String getLink() {
+			return link;
+		}
+	}
+
+	public static final class Edge {
+		private final String from;
+		private final String to;
+		private final EdgeKind kind;
+		private int count;
+
+		private Edge(String from, String to, EdgeKind kind) {
+			this.from = from;
+			this.to = to;
+			this.kind = kind;
+		}
+
+		public String getFrom() {
+			return from;
+		}
+
+		public String getTo() {
+			return to;
+		}
+
+		public EdgeKind getKind() {
+			return kind;
+		}
+
+		/**
+		 * @return how many fields, or collapsed edges, the edge stands for
+		 */
+		public int getCount() {
+			return count;
+		}
+	}
+
+	/**
+	 * Classes collapsed into a single node
+	 */
+	private static final class Unit {
+		private final String id;
+		private final String title;
+		private final String label;
+		private final String group;
+		private final String file;
+		private final List<Node> members;
+
+		private Unit(String id, String title, String group, String file, List<Node> members) {
+			this.id = id;
+			this.title = title;
+			this.label = title.substring(title.lastIndexOf('.') + 1) + " (" + members.size() + ")";
+			this.group = group;
+			this.file = file;
+			this.members = members;
+		}
+	}
+
+	private final String title;
+	private final Map<String, String> groups;
+	private final Map<String, Node> nodes = new LinkedHashMap<>();
+	private final Map<List<Object>, Edge> edges = new LinkedHashMap<>();
+
+	public ClassGraph(String title) {
+		this(title, new LinkedHashMap<>());
+	}
+
+	private ClassGraph(String title, Map<String, String> groups) {
+		this.title = title;
+		this.groups = groups;
+	}
+
+	/**
+	 * @return the classes of the index, the core domain in the hexagon group and each cluster in its group
+	 */
+	public static ClassGraph of(ClassIndex index) {
+		final ClassGraph graph = new ClassGraph("Hexagonal Architecture");
+		graph.addGroup(HEXAGON, "Core Domain");
+		index.getClusters().keySet().forEach(name -> graph.addGroup(name, name));
+
+		index.getCore().forEach(clazz -> graph.addClass(clazz, HEXAGON));
+		index.getClusters().forEach((name, classes) -> classes.forEach(clazz -> graph.addClass(clazz, name)));
+		index.getOthers().forEach(clazz -> graph.addClass(clazz, null));
+
+		// same order as the associations of the dot graph
+		index.getClusters().values().forEach(classes -> classes.forEach(graph::addAssociations));
+		index.getOthers().forEach(graph::addAssociations);
+		index.getCore().forEach(graph::addAssociations);
+		return graph;
+	}
+
+	private void addClass(ClassModel clazz, String group) {
+		if (!clazz.getSimpleName().equalsIgnoreCase("package-info")) {
+			addNode(new Node(clazz.getName(), clazz.getSimpleName(), group, clazz.getPackageName(), null));
+		}
+	}
+
+	private void addAssociations(ClassModel clazz) {
+		// API
+		for (String type : clazz.getFieldTypes()) {
+			addEdge(clazz.getName(), type, EdgeKind.ASSOCIATION, 1);
+		}
+		// SPI
+		for (String intf : clazz.getInterfaces()) {
+			addEdge(intf, clazz.getName(), EdgeKind.IMPLEMENTS, 1);
+		}
+	}
+
+	public void addGroup(String name, String label) {
+		groups.put(name, label);
+	}
+
+	public void addNode(String id, String label, String group) {
+		final int dot = id.lastIndexOf('.');
+		addNode(new Node(id, label, group, dot < 0 ? "" : id.substring(0, dot), null));
+	}
+
+	private void addNode(Node node) {
+		nodes.putIfAbsent(node.id, node);
+	}
+
+	/**
+	 * Adds an edge between two nodes of the graph, or adds to its count if it already exists. Other edges and
+	 * loops are ignored.
+	 */
+	public void addEdge(String from, String to, EdgeKind kind, int count) {
+		if (from.equals(to) || !nodes.containsKey(from) || !nodes.containsKey(to)) {
+			return;
+		}
+		edges.computeIfAbsent(Arrays.asList(from, to, kind), k -> new Edge(from, to, kind)).count += count;
+	}
+
+	public String getTitle() {
+		return title;
+	}
+
+	/**
+	 * @return the label of each group, by name
+	 */
+	public Map<String, String> getGroups() {
+		return Collections.unmodifiableMap(groups);
+	}
+
+	public Collection<Node> getNodes() {
+		return Collections.unmodifiableCollection(nodes.values());
+	}
+
+	public Collection<Edge> getEdges() {
+		return Collections.unmodifiableCollection(edges.values());
+	}
+
+	/**
+	 * @param maxNodes the maximum number of nodes, 0 for no maximum
+	 * @param maxEdges the maximum number of edges, 0 for no maximum
+	 */
+	public boolean fits(int maxNodes, int maxEdges) {
+		return (maxNodes <= 0 || nodes.size() <= maxNodes) && (maxEdges <= 0 || edges.size() <= maxEdges);
+	}
+
+	/**
+	 * Collapses the biggest packages, then the biggest groups, until the graph fits the budget or nothing is left
+	 * to collapse.
+	 *
+	 * @param fileName the name of the diagram file, the diagrams of the collapsed nodes being named after it
+	 * @param drillDowns where to put the graph of each node of the collapsed graph, by file name
+	 * @return the collapsed graph, this graph if it fits the budget
+	 */
+	public ClassGraph collapse(int maxNodes, int maxEdges, String fileName, Map<String, ClassGraph> drillDowns) {
+		if (fits(maxNodes, maxEdges)) {
+			return this;
+		}
+		// the units are sorted once, and the graph remapped once, when the counts of the collapsed graph fit
+		final Collapsing collapsing = new Collapsing();
+		final List<Unit> collapsedUnits = new ArrayList<>();
+		for (List<Unit> candidates : Arrays.asList(packageUnits(fileName), groupUnits(fileName))) {
+			for (Unit unit : candidates) {
+				if (collapsing.fits(maxNodes, maxEdges)) {
+					break;
+				}
+				collapsing.collapse(unit);
+				collapsedUnits.add(unit);
+			}
+		}
+		// a package absorbed by a group afterwards has no node left to link to its diagram
+		final Set<Unit> linked = Collections.newSetFromMap(new IdentityHashMap<>());
+		linked.addAll(collapsing.units.values());
+		collapsedUnits.stream().filter(linked::contains).forEach(unit -> drillDowns.put(unit.file, subgraph(unit)));
+		return collapsedUnits.isEmpty() ? this : remap(collapsing.units);
+	}
+
+	/**
+	 * Counts of the nodes and the edges of the graph as the units are collapsed, updated from the edges of the
+	 * collapsed classes only
+	 */
+	private final class Collapsing {
+		private final Map<String, Unit> units = new HashMap<>();
+		// the number of classes behind each node, and of edges behind each edge, of the collapsed graph
+		private final Map<String, Integer> nodeCounts = new HashMap<>();
+		private final Map<List<Object>, Integer> edgeCounts = new HashMap<>();
+		private final Map<String, List<Edge>> incidentEdges = new HashMap<>();
+
+		private Collapsing() {
+			nodes.keySet().forEach(id -> nodeCounts.put(id, 1));
+			for (Edge edge : edges.values()) {
+				edgeCounts.put(Arrays.asList(edge.from, edge.to, edge.kind), 1);
+				incidentEdges.computeIfAbsent(edge.from, id -> new ArrayList<>()).add(edge);
+				incidentEdges.computeIfAbsent(edge.to, id -> new ArrayList<>()).add(edge);
+			}
+		}
+
+		private boolean fits(int maxNodes, int maxEdges) {
+			return (maxNodes <= 0 || nodeCounts.size() <= maxNodes)
+					&& (maxEdges <= 0 || edgeCounts.size() <= maxEdges);
+		}
+
+		private void collapse(Unit unit) {
+			final Set<Edge> incident = Collections.newSetFromMap(new IdentityHashMap<>());
+			unit.members.forEach(n -> incident.addAll(incidentEdges.getOrDefault(n.id, Collections.emptyList())));
+			incident.forEach(edge -> count(edge, -1));
+			for (Node member : unit.members) {
+				add(nodeCounts, id(member.id, units), -1);
+				units.put(member.id, unit);
+				add(nodeCounts, unit.id, 1);
+			}
+			incident.forEach(edge -> count(edge, 1));
+		}
+
+		private void count(Edge edge, int delta) {
+			final String from = id(edge.from, units);
+			final String to = id(edge.to, units);
+			if (!from.equals(to)) {
+				add(edgeCounts, Arrays.asList(from, to, edge.kind), delta);
+			}
+		}
+
+		private <K> void add(Map<K, Integer> counts, K key, int delta) {
+			counts.merge(key, delta, (count, added) -> count + added == 0 ? null : count + added);
+		}
+	}
+
+	private List<Unit> packageUnits(String fileName) {
+		final Map<String, List<Node>> byPackage = nodes.values().stream()
+				.collect(Collectors.groupingBy(n -> n.packageName, LinkedHashMap::new, Collectors.toList()));
+		return biggestFirst(byPackage.entrySet().stream()
+				.filter(e -> isCollapsible(e.getValue()))
+				.map(e -> new Unit("package:" + e.getKey(), e.getKey(), e.getValue().get(0).group,
+						fileName + "-package-" + e.getKey(), e.getValue())));
+	}
+
+	private List<Unit> groupUnits(String fileName) {
+		final Map<String, List<Node>> byGroup = nodes.values().stream()
+				.filter(n -> n.group != null)
+				.collect(Collectors.groupingBy(n -> n.group, LinkedHashMap::new, Collectors.toList()));
+		return biggestFirst(byGroup.entrySet().stream()
+				.filter(e -> isCollapsible(e.getValue()))
+				.map(e -> new Unit("group:" + e.getKey(), groups.get(e.getKey()), e.getKey(),
+						fileName + "-group-" + e.getKey(), e.getValue())));
+	}
+
+	/**
+	 * A single class is left as is, and so is the whole graph, which would only link to itself
+	 */
+	private boolean isCollapsible(List<Node> members) {
+		return members.size() > 1 && members.size() < nodes.size();
+	}
+
+	private static List<Unit> biggestFirst(Stream<Unit> units) {
+		return units.sorted(Comparator.<Unit>comparingInt(u -> -u.members.size()).thenComparing(u -> u.id))
+				.collect(Collectors.toList());
+	}
+
+	/**
+	 * @return the graph with the classes of each unit replaced by the node of the unit
+	 */
+	private ClassGraph remap(Map<String, Unit> units) {
+		final ClassGraph graph = new ClassGraph(title, new LinkedHashMap<>(groups));
+		for (Node node : nodes.values()) {
+			final Unit unit = units.get(node.id);
+			graph.addNode(unit == null ? node
+					: new Node(unit.id, unit.label, unit.group, node.packageName, unit.file));
+		}
+		for (Edge edge : edges.values()) {
+			graph.addEdge(id(edge.from, units), id(edge.to, units), edge.kind, edge.count);
+		}
+		return graph;
+	}
+
+	private static String id(String node, Map<String, Unit> units) {
+		final Unit unit = units.get(node);
+		return unit == null ? node : unit.id;
+	}
+
+	/**
+	 * @return the classes of the unit and the edges between them
+	 */
+	private ClassGraph subgraph(Unit unit) {
+		final ClassGraph graph = new ClassGraph(unit.title, new LinkedHashMap<>(groups));
+		unit.members.forEach(graph::addNode);
+		edges.values().forEach(e -> graph.addEdge(e.from, e.to, e.kind, e.count));
+		return graph;
+	}
+}
@@ -0,0 +1,128 @@
+package io.github.livingdocumentation.maven;
+
+import io.github.livingdocumentation.maven.commons.ClassModel;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Classes of the diagram, classified in a single pass into the core domain, the named clusters and the
+ * others. The classification only depends on the package, so it is computed once per package.
+ * Classifying is thread-safe, adding is not.
+ */
+public class ClassIndex {
+
+	public enum Category {
+		CORE, CLUSTER, OTHER, EXCLUDED
+	}
+
+	private static final Classification EXCLUDED = new Classification(Category.EXCLUDED, null);
+	private static final Classification CORE = new Classification(Category.CORE, null);
+	private static final Classification OTHER = new Classification(Category.OTHER, null);
+
+	private static final class Classification {
+		private final Category category;
+		private final String cluster;
+
+		private Classification(Category category, String cluster) {
+			this.category = category;
+			this.cluster = cluster;
+		}
+	}
+
+	private final String prefix;
+	private final String coreSuffix;
+	private final Map<String, Classification> clusterBySuffix = new HashMap<>();
+	private final List<Pattern> packageExcludes = new ArrayList<>();
+	private final Map<String, Classification> classificationByPackage = new ConcurrentHashMap<>();
+
+	private final List<ClassModel> core = new ArrayList<>();
+	private final Map<String, List<ClassModel>> clusters = new LinkedHashMap<>();
+	private final List<ClassModel> others = new ArrayList<>();
+
+	public ClassIndex(String prefix, String coreDomain, String[] clusters, String[] packageExcludes) {
+		this.prefix = prefix;
+		this.coreSuffix = "." + coreDomain;
+		for (String cluster : clusters) {
+			this.clusterBySuffix.putIfAbsent(cluster, new Classification(Category.CLUSTER, cluster));
+			this.clusters.put(cluster, new ArrayList<>());
+		}
+		for (String exclude : packageExcludes) {
+			this.packageExcludes.add(Pattern.compile(exclude));
+		}
+	}
+
+	/**
+	 * Classifies a class and, unless it is excluded, reads its model and adds it to the index.
+	 */
+	public Category add(String packageName, String simpleName, Supplier<ClassModel> model) {
+		final Classification classification = classification(packageName, simpleName);
+		switch (classification.category) {
+			case CORE:
+				core.add(model.get());
+				break;
+			case CLUSTER:
+				clusters.get(classification.cluster).add(model.get());
+				break;
+			case OTHER:
+				others.add(model.get());
+				break;
+			default:
+				break;
+		}
+		return classification.category;
+	}
+
+	/**
+	 * @return the category of a class, without adding it
+	 */
+	public Category categorize(String packageName, String simpleName) {
+		return classification(packageName, simpleName).category;
+	}
+
+	private Classification classification(String packageName, String simpleName) {
+		if (simpleName.endsWith("Test") || simpleName.endsWith("IT")) {
+			return EXCLUDED;
+		}
+		return classificationByPackage.computeIfAbsent(packageName, this::classify);
+	}
+
+	private Classification classify(String packageName) {
+		if (!packageName.startsWith(prefix)) {
+			return EXCLUDED;
+		}
+		for (Pattern exclude : packageExcludes) {
+			if (exclude.matcher(packageName).matches()) {
+				return EXCLUDED;
+			}
+		}
+		if (packageName.endsWith(coreSuffix)) {
+			return CORE;
+		}
+		// look up every suffix of the package, from the longest to the shortest
+		for (int dot = packageName.indexOf('.'); dot >= 0; dot = packageName.indexOf('.', dot + 1)) {
+			final Classification cluster = clusterBySuffix.get(packageName.substring(dot + 1));
+			if (cluster != null) {
+				return cluster;
+			}
+		}
+		return OTHER;
+	}
+
+	public List<ClassModel> getCore() {
+		return core;
+	}
+
+	/**
+	 * @return the classes of each cluster, in the order the clusters were declared
+	 */
+	public Map<String, List<ClassModel>> getClusters() {
+		return clusters;
+	}
+
+	public List<ClassModel> getOthers() {
+		return others;
+	}
+}
@@ -0,0 +1,75 @@
+package io.github.livingdocumentation.maven;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+import java.io.File;
+import java.util.Arrays;
+
+/**
+ * Single Living Diagram of the classes of every module of the reactor, so that the associations between
+ * modules show up. The class files of the modules are parsed, without resolving their classpaths: invoke the goal
+ * after <code>compile</code>.
+ */
+@Mojo(name = "diagram-aggregate", aggregator = true, threadSafe = true)
+public class DiagramAggregateMojo extends AbstractAggregateMojo {
+
+    /**
+     * Package name prefix of classes included in the diagram
+     */
+    @Parameter
+    private String prefix;
+
+    /**
+     * End of package name that contains core business domain classes
+     */
+    @Parameter(defaultValue = "domain")
+    private String coreDomain;
+
+    /**
+     * List of packages to exclude. Specified as regexp.
+     */
+    @Parameter
+    private String[] packageExcludes = new String[0];
+
+    /**
+     * List of packages suffix to map to a cluster in diagram
+     */
+    @Parameter
+    private String[] clusters = new String[0];
+
+    /**
+     * Lay the diagram out at build time into a static SVG, so that the page shows without viz.js
+     */
+    @Parameter(property = "livingdoc.diagram.svg", defaultValue = "false")
+    private boolean svg;
+
+    /**
+     * Number of nodes above which the biggest packages, then clusters, of the diagram are collapsed into nodes
+     * linking to their own diagram, 0 for no maximum
+     */
+    @Parameter(property = "livingdoc.diagram.maxNodes", defaultValue = "0")
+    private int maxNodes;
+
+    /**
+     * Number of edges above which the biggest packages, then clusters, of the diagram are collapsed, 0 for no
+     * maximum
+     */
+    @Parameter(property = "livingdoc.diagram.maxEdges", defaultValue = "0")
+    private int maxEdges;
+
+    /**
+     * Directories or jars whose classes under the prefix are drawn too, besides the output directories of the projects
+     */
+    @Parameter
+    private File[] extraClassRoots = new File[0];
+
+    @Override
+    public void execute() throws MojoExecutionException {
+        render(new DiagramRenderer.Builder(reactorProjects, prefix, outputDirectory).coreDomain(coreDomain)
+                .packageExcludes(packageExcludes).clusters(clusters).scanner(DiagramRenderer.BYTECODE_SCANNER).svg(svg)
+                .budget(maxNodes, maxEdges).extraRoots(Arrays.asList(extraClassRoots))
+                .assetsDirectory(assetsDirectory).build(), null);
+    }
+}
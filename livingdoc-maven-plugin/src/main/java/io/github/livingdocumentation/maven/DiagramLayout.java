@@ -0,0 +1,436 @@
+package io.github.livingdocumentation.maven;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.*;
+
+/**
+ * Layered layout of the diagram, computed at build time and written as SVG, so that the page does not run
+ * Graphviz in the browser. In the Sugiyama way, the cycles are broken by reversing the back edges of a depth
+ * first search, the nodes are ranked by longest path from left to right, and the nodes of each rank are
+ * ordered by the barycenter of their neighbours, sweeping forth and back, to reduce the crossings. Each
+ * group, the core domain or a cluster, gets its own horizontal band, so that its box never overlaps another
+ * one; the core domain is drawn as a hexagon in the middle band.
+ */
+public class DiagramLayout {
+
+	private static final int SWEEPS = 8;
+	private static final double FONT_SIZE = 10;
+	private static final double CHAR_WIDTH = .62 * FONT_SIZE;
+	private static final double NODE_HEIGHT = 22;
+	private static final double ROW_HEIGHT = 34;
+	private static final double LAYER_GAP = 60;
+	private static final double GROUP_PADDING = 16;
+	private static final double GROUP_HEADER = 18;
+	private static final double GROUP_GAP = 24;
+	private static final double MARGIN = 30;
+
+	private static final class Group {
+		private final String label;
+		private final boolean hexagon;
+		private double top;
+		private int rows;
+
+		private Group(String label, boolean hexagon) {
+			this.label = label;
+			this.hexagon = hexagon;
+		}
+	}
+
+	private static final class Node {
+		private final int index;
+		private final String label;
+		private final Group group;
+		private final String link;
+		private final double width;
+		private final List<Node> neighbours = new ArrayList<>();
+		private int layer;
+		private double position;
+		private double x;
+		private double y;
+
+		private Node(int index, String label, Group group, String link) {
+			this.index = index;
+			this.label = label;
+			this.group = group;
+			this.link = link;
+			this.width = label.length() * CHAR_WIDTH + 16;
+		}
+	}
+
+	private static final class Edge {
+		private final Node from;
+		private final Node to;
+		private final ClassGraph.EdgeKind kind;
+		private final int count;
+
+		private Edge(Node from, Node to, ClassGraph.EdgeKind kind, int count) {
+			this.from = from;
+			this.to = to;
+			this.kind = kind;
+			this.count = count;
+		}
+
+		// the count is not part of the identity
+		@Override
+		public boolean equals(Object o) {
+			if (!(o instanceof Edge)) {
+				return false;
+			}
+			final Edge other = (Edge) o;
+			return from == other.from && to == other.to && kind == other.kind;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(from.index, to.index, kind);
+		}
+	}
+
+	private final String title;
+	private final Map<String, Group> groups = new LinkedHashMap<>();
+	private final Group others = new Group(null, false);
+	private final Map<String, Node> nodes = new LinkedHashMap<>();
+	private final Set<Edge> edges = new LinkedHashSet<>();
+	private double width;
+	private double height;
+
+	public DiagramLayout(String title) {
+		this.title = title;
+	}
+
+	/**
+	 * Adds a group, drawn as a hexagon for the core domain and as a box otherwise
+	 */
+	public void addGroup(String name, String label, boolean hexagon) {
+		groups.put(name, new Group(label, hexagon));
+	}
+
+	/**
+	 * @param group the name of the group of the node, null for none
+	 * @param link the page the node links to, null for none
+	 */
+	public void addNode(String id, String label, String group, String link) {
+		nodes.computeIfAbsent(id, k -> new Node(nodes.size(), label, group == null ? others : groups.get(group), link));
+	}
+
+	public void addNode(String id, String label, String group) {
+		addNode(id, label, group, null);
+	}
+
+	/**
+	 * Adds an edge between two nodes already added, like an existing association of the dot graph. Other edges,
+	 * loops and duplicates are ignored.
+	 *
+	 * @param count the multiplicity of the edge, written next to it above 1
+	 */
+	public void addEdge(String from, String to, ClassGraph.EdgeKind kind, int count) {
+		final Node source = nodes.get(from);
+		final Node target = nodes.get(to);
+		if (source != null && target != null && source != target
+				&& edges.add(new Edge(source, target, kind, count))) {
+			source.neighbours.add(target);
+			target.neighbours.add(source);
+		}
+	}
+
+	/**
+	 * Computes the ranks, the order within the ranks and the coordinates of the nodes.
+	 */
+	public DiagramLayout layout() {
+		final List<List<Node>> layers = rank();
+		order(layers);
+		place(layers);
+		return this;
+	}
+
+	/**
+	 * @return the nodes of each rank, in their initial order
+	 */
+	private List<List<Node>> rank() {
+		final List<Node> all = new ArrayList<>(nodes.values());
+		final Map<Node, List<Node>> successors = acyclicSuccessors(all);
+		// longest path in topological order
+		final Map<Node, Integer> incoming = new HashMap<>();
+		successors.values().forEach(targets -> targets.forEach(t -> incoming.merge(t, 1, Integer::sum)));
+		final Deque<Node> ready = new ArrayDeque<>();
+		all.stream().filter(n -> !incoming.containsKey(n)).forEach(ready::add);
+		int layerCount = 0;
+		while (!ready.isEmpty()) {
+			final Node node = ready.poll();
+			layerCount = Math.max(layerCount, node.layer + 1);
+			for (Node target : successors.get(node)) {
+				target.layer = Math.max(target.layer, node.layer + 1);
+				if (incoming.merge(target, -1, Integer::sum) == 0) {
+					ready.add(target);
+				}
+			}
+		}
+		final List<List<Node>> layers = new ArrayList<>();
+		for (int i = 0; i < layerCount; i++) {
+			layers.add(new ArrayList<>());
+		}
+		all.forEach(n -> layers.get(n.layer).add(n));
+		return layers;
+	}
+
+	/**
+	 * @return the successors of each node, once the back edges found by a depth first search are reversed
+	 */
+	private Map<Node, List<Node>> acyclicSuccessors(List<Node> all) {
+		final Map<Node, List<Node>> successors = new HashMap<>();
+		all.forEach(n -> successors.put(n, new ArrayList<>()));
+		edges.forEach(e -> successors.get(e.from).add(e.to));
+
+		final Map<Node, List<Node>> acyclic = new HashMap<>();
+		all.forEach(n -> acyclic.put(n, new ArrayList<>()));
+		// 0 not visited, 1 on the stack, 2 done
+		final Map<Node, Integer> states = new HashMap<>();
+		for (Node root : all) {
+			if (states.containsKey(root)) {
+				continue;
+			}
+			final Deque<Node> stack = new ArrayDeque<>();
+			final Deque<Iterator<Node>> iterators = new ArrayDeque<>();
+			stack.push(root);
+			iterators.push(successors.get(root).iterator());
+			states.put(root, 1);
+			while (!stack.isEmpty()) {
+				final Node node = stack.peek();
+				final Iterator<Node> it = iterators.peek();
+				if (!it.hasNext()) {
+					states.put(node, 2);
+					stack.pop();
+					iterators.pop();
+					continue;
+				}
+				final Node target = it.next();
+				final Integer state = states.get(target);
+				if (state == null) {
+					acyclic.get(node).add(target);
+					states.put(target, 1);
+					stack.push(target);
+					iterators.push(successors.get(target).iterator());
+				} else if (state == 1) {
+					acyclic.get(target).add(node);
+				} else {
+					acyclic.get(node).add(target);
+				}
+			}
+		}
+		return acyclic;
+	}
+
+	/**
+	 * Orders each rank by group, then by the barycenter of the neighbours in the ranks already swept.
+	 */
+	private void order(List<List<Node>> layers) {
+		final List<Group> bands = bands();
+		final Comparator<Node> initial = Comparator.<Node>comparingInt(n -> bands.indexOf(n.group))
+				.thenComparingInt(n -> n.index);
+		layers.forEach(layer -> {
+			layer.sort(initial);
+			updatePositions(layer);
+		});
+		for (int sweep = 0; sweep < SWEEPS; sweep++) {
+			final boolean forth = sweep % 2 == 0;
+			for (int i = 1; i < layers.size(); i++) {
+				final int layer = forth ? i : layers.size() - 1 - i;
+				final Map<Node, Double> barycenters = new HashMap<>();
+				for (Node node : layers.get(layer)) {
+					double sum = 0;
+					int count = 0;
+					for (Node neighbour : node.neighbours) {
+						if (forth ? neighbour.layer < layer : neighbour.layer > layer) {
+							sum += neighbour.position;
+							count++;
+						}
+					}
+					barycenters.put(node, count == 0 ? node.position : sum / count);
+				}
+				layers.get(layer).sort(Comparator.<Node>comparingInt(n -> bands.indexOf(n.group))
+						.thenComparingDouble(barycenters::get)
+						.thenComparingDouble(n -> n.position));
+				updatePositions(layers.get(layer));
+			}
+		}
+	}
+
+	/**
+	 * The position of a node is its rank within its group, centered, so that it compares across ranks
+	 */
+	private static void updatePositions(List<Node> layer) {
+		final Map<Group, Integer> counts = new HashMap<>();
+		layer.forEach(n -> counts.merge(n.group, 1, Integer::sum));
+		final Map<Group, Integer> seen = new HashMap<>();
+		for (Node node : layer) {
+			final int rank = seen.merge(node.group, 1, Integer::sum) - 1;
+			node.position = rank - (counts.get(node.group) - 1) / 2.;
+		}
+	}
+
+	/**
+	 * @return the groups from top to bottom: half of the clusters, the core domain, the other clusters,
+	 * then the nodes of no group
+	 */
+	private List<Group> bands() {
+		final List<Group> clusters = new ArrayList<>();
+		Group hexagon = null;
+		for (Group group : groups.values()) {
+			if (group.hexagon) {
+				hexagon = group;
+			} else {
+				clusters.add(group);
+			}
+		}
+		final List<Group> bands = new ArrayList<>(clusters.subList(0, clusters.size() / 2));
+		if (hexagon != null) {
+			bands.add(hexagon);
+		}
+		bands.addAll(clusters.subList(clusters.size() / 2, clusters.size()));
+		bands.add(others);
+		return bands;
+	}
+
+	private void place(List<List<Node>> layers) {
+		final List<Group> bands = bands();
+		for (List<Node> layer : layers) {
+			final Map<Group, Integer> counts = new HashMap<>();
+			layer.forEach(n -> counts.merge(n.group, 1, Integer::sum));
+			counts.forEach((group, count) -> group.rows = Math.max(group.rows, count));
+		}
+		double top = MARGIN;
+		for (Group group : bands) {
+			if (group.rows == 0) {
+				continue;
+			}
+			group.top = top;
+			top += group.rows * ROW_HEIGHT + (group == others ? 0 : GROUP_HEADER + 2 * GROUP_PADDING) + GROUP_GAP;
+		}
+		height = top - GROUP_GAP + MARGIN;
+
+		// the hexagon needs room on its sides for its points
+		double left = MARGIN + GROUP_PADDING + ROW_HEIGHT;
+		for (List<Node> layer : layers) {
+			final double columnWidth = layer.stream().mapToDouble(n -> n.width).max().orElse(0);
+			for (Node node : layer) {
+				final Group group = node.group;
+				final double bandTop = group.top + (group == others ? 0 : GROUP_HEADER + GROUP_PADDING);
+				node.x = left + columnWidth / 2;
+				node.y = bandTop + (node.position + (group.rows - 1) / 2.) * ROW_HEIGHT + ROW_HEIGHT / 2;
+			}
+			left += columnWidth + LAYER_GAP;
+		}
+		width = left - LAYER_GAP + GROUP_PADDING + ROW_HEIGHT + MARGIN;
+	}
+
+	public double getWidth() {
+		return width;
+	}
+
+	public double getHeight() {
+		return height;
+	}
+
+	/**
+	 * @return the x and y of the center of the node, once laid out
+	 */
+	double[] getCenter(String id) {
+		final Node node = nodes.get(id);
+		return new double[] { node.x, node.y };
+	}
+
+	/**
+	 * Writes the laid out diagram as an SVG image, styled like the dot graph.
+	 */
+	public void writeSvg(Writer out) throws IOException {
+		out.write(String.format(Locale.ROOT,
+				"<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"%.0f\" height=\"%.0f\" viewBox=\"0 0 %.0f %.0f\">%n",
+				width, height, width, height));
+		out.write("<title>" + escape(title) + "</title>\n");
+		out.write("<defs>\n");
+		out.write("<marker id=\"open\" viewBox=\"0 0 10 10\" refX=\"10\" refY=\"5\" markerWidth=\"8\" markerHeight=\"8\""
+				+ " orient=\"auto\"><path d=\"M0,0 L10,5 L0,10\" fill=\"none\" stroke=\"black\"/></marker>\n");
+		out.write("<marker id=\"empty\" viewBox=\"0 0 10 10\" refX=\"0\" refY=\"5\" markerWidth=\"10\" markerHeight=\"10\""
+				+ " orient=\"auto\"><path d=\"M10,0 L0,5 L10,10 Z\" fill=\"white\" stroke=\"black\"/></marker>\n");
+		out.write("</defs>\n");
+		out.write("<g font-family=\"Verdana\" font-size=\"" + (int) FONT_SIZE + "\">\n");
+		for (Group group : groups.values()) {
+			writeGroup(group, out);
+		}
+		for (Edge edge : edges) {
+			writeEdge(edge, out);
+		}
+		for (Node node : nodes.values()) {
+			if (node.link != null) {
+				out.write("<a href=\"" + escape(node.link) + "\">\n");
+			}
+			out.write(String.format(Locale.ROOT,
+					"<rect x=\"%.1f\" y=\"%.1f\" width=\"%.1f\" height=\"%.1f\" fill=\"%s\" stroke=\"black\"/>%n",
+					node.x - node.width / 2, node.y - NODE_HEIGHT / 2, node.width, NODE_HEIGHT,
+					node.link == null ? "white" : "lightgrey"));
+			out.write(String.format(Locale.ROOT, "<text x=\"%.1f\" y=\"%.1f\" text-anchor=\"middle\">%s</text>%n",
+					node.x, node.y + FONT_SIZE / 3, escape(node.label)));
+			if (node.link != null) {
+				out.write("</a>\n");
+			}
+		}
+		out.write("</g>\n</svg>");
+	}
+
+	private void writeGroup(Group group, Writer out) throws IOException {
+		final List<Node> members = new ArrayList<>();
+		nodes.values().stream().filter(n -> n.group == group).forEach(members::add);
+		if (members.isEmpty()) {
+			return;
+		}
+		final double left = members.stream().mapToDouble(n -> n.x - n.width / 2).min().getAsDouble() - GROUP_PADDING;
+		final double right = members.stream().mapToDouble(n -> n.x + n.width / 2).max().getAsDouble() + GROUP_PADDING;
+		final double top = group.top;
+		final double bottom = top + GROUP_HEADER + 2 * GROUP_PADDING + group.rows * ROW_HEIGHT;
+		if (group.hexagon) {
+			final double middle = (top + bottom) / 2;
+			final double point = Math.min(ROW_HEIGHT, (bottom - top) / 2);
+			out.write(String.format(Locale.ROOT,
+					"<polygon points=\"%.1f,%.1f %.1f,%.1f %.1f,%.1f %.1f,%.1f %.1f,%.1f %.1f,%.1f\""
+							+ " fill=\"none\" stroke=\"black\"/>%n",
+					left - point, middle, left, top, right, top, right + point, middle, right, bottom, left, bottom));
+		} else {
+			out.write(String.format(Locale.ROOT,
+					"<rect x=\"%.1f\" y=\"%.1f\" width=\"%.1f\" height=\"%.1f\" fill=\"none\" stroke=\"black\"/>%n",
+					left, top, right - left, bottom - top));
+		}
+		out.write(String.format(Locale.ROOT, "<text x=\"%.1f\" y=\"%.1f\" text-anchor=\"middle\">%s</text>%n",
+				(left + right) / 2, top + GROUP_HEADER, escape(group.label)));
+	}
+
+	/**
+	 * Edges leave the right side of the node of the lower rank for the left side of the other one
+	 */
+	private void writeEdge(Edge edge, Writer out) throws IOException {
+		final boolean forward = edge.from.x <= edge.to.x;
+		final Node first = forward ? edge.from : edge.to;
+		final Node second = forward ? edge.to : edge.from;
+		final double x1 = first.x + first.width / 2;
+		final double x2 = second.x - second.width / 2;
+		final double bend = Math.max(LAYER_GAP / 2, (x2 - x1) / 2);
+		final String path = forward
+				? String.format(Locale.ROOT, "M%.1f,%.1f C%.1f,%.1f %.1f,%.1f %.1f,%.1f", x1, first.y, x1 + bend,
+						first.y, x2 - bend, second.y, x2, second.y)
+				: String.format(Locale.ROOT, "M%.1f,%.1f C%.1f,%.1f %.1f,%.1f %.1f,%.1f", x2, second.y, x2 - bend,
+						second.y, x1 + bend, first.y, x1, first.y);
+		final String style = edge.kind == ClassGraph.EdgeKind.IMPLEMENTS
+				? " stroke-dasharray=\"5,3\" marker-start=\"url(#empty)\""
+				: " marker-end=\"url(#open)\"";
+		out.write("<path d=\"" + path + "\" fill=\"none\" stroke=\"black\"" + style + "/>\n");
+		if (edge.count > 1) {
+			// the middle of the curve, which is symmetric
+			out.write(String.format(Locale.ROOT, "<text x=\"%.1f\" y=\"%.1f\" text-anchor=\"middle\">%d</text>%n",
+					(x1 + x2) / 2, (first.y + second.y) / 2 - 3, edge.count));
+		}
+	}
+
+	private static String escape(String text) {
+		return text == null ? "" : text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+	}
+}
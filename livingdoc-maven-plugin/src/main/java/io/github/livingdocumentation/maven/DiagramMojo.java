@@ -1,12 +1,6 @@
 package io.github.livingdocumentation.maven;
 
-import com.google.common.collect.ImmutableSet;
-import com.google.common.reflect.ClassPath;
-import com.google.common.reflect.ClassPath.ClassInfo;
-import io.github.livingdocumentation.dotdiagram.DotGraph;
-import io.github.livingdocumentation.dotdiagram.DotGraph.Cluster;
-import io.github.livingdocumentation.dotdiagram.DotGraph.Digraph;
-import org.apache.maven.artifact.DependencyResolutionRequiredException;
+import io.github.livingdocumentation.maven.commons.Metrics;
 import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugins.annotations.LifecyclePhase;
@@ -16,23 +10,8 @@ import org.apache.maven.plugins.annotations.ResolutionScope;
 import org.apache.maven.project.MavenProject;
 
 import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.IOException;
-import java.io.UnsupportedEncodingException;
-import java.lang.reflect.Field;
-import java.net.MalformedURLException;
-import java.net.URL;
-import java.net.URLClassLoader;
 import java.util.Arrays;
-import java.util.List;
-import java.util.Map;
-import java.util.function.Function;
-import java.util.function.Predicate;
-import java.util.stream.Collectors;
-
-import static io.github.livingdocumentation.maven.commons.SimpleTemplate.*;
-import static io.github.livingdocumentation.dotdiagram.DotStyles.ASSOCIATION_EDGE_STYLE;
-import static io.github.livingdocumentation.dotdiagram.DotStyles.IMPLEMENTS_EDGE_STYLE;
+import java.util.Collections;
 
 /**
  * Living Diagram of the Hexagonal Architecture generated out of the code thanks
@@ -41,11 +20,9 @@ import static io.github.livingdocumentation.dotdiagram.DotStyles.IMPLEMENTS_EDGE
  */
 
 @Mojo(name = "diagram", requiresDependencyResolution = ResolutionScope.COMPILE_PLUS_RUNTIME,
-		defaultPhase = LifecyclePhase.PROCESS_CLASSES)
+		defaultPhase = LifecyclePhase.PROCESS_CLASSES, threadSafe = true)
 public class DiagramMojo extends AbstractMojo {
 
-	private final DotGraph graph = new DotGraph("Hexagonal Architecture", "LR");
-
 	/**
 	 * The project being processed by the plugin (readonly)
 	 */
@@ -82,129 +59,72 @@ public class DiagramMojo extends AbstractMojo {
 	@Parameter
 	private String[] clusters = new String[0];
 
+	/**
+	 * How classes are read: "reflection" loads every class in a class loader, "bytecode" parses the
+	 * class files without loading them
+	 */
+	@Parameter(property = "livingdoc.scanner", defaultValue = DiagramRenderer.REFLECTION_SCANNER)
+	private String scanner;
 
-	@Override
-	public void execute() throws MojoExecutionException {
-		final ClassPath classPath = initClassPath();
-
-		final ImmutableSet<ClassInfo> allClasses = classPath.getTopLevelClassesRecursive(prefix);
-
-		final Digraph digraph = graph.getDigraph();
-		digraph.setOptions("rankdir=LR");
-
-		final Cluster core = digraph.addCluster("hexagon");
-		core.setLabel("Core Domain");
-
-		Map<String, Cluster> digraphClusters = Arrays.stream(clusters)
-				.map(s -> {Cluster c = digraph.addCluster(s);
-					c.setLabel(s); return c;})
-				.collect(Collectors.toMap(Cluster::getLabel, Function.identity()));
-
-		// add all domain model elements first
-		allClasses.stream().filter(filter(prefix, coreDomain)).map(ClassInfo::load).forEach(clazz -> addNode(core, clazz));
-
-		// add clusters
-		if (clusters.length > 0) {
-			allClasses.stream().filter(filter(prefix, clusters))
-					.forEach(ci -> addNode(digraphClusters.get(getSuffixe(ci.getPackageName())), ci.load()));
-		}
-
-		allClasses.stream().filter(filterNot(prefix, coreDomain)).map(ClassInfo::load).forEach(clazz -> addNode(digraph, clazz));
-
-		allClasses.stream().filter(filterNot(prefix, coreDomain)).map(ClassInfo::load).forEach(clazz -> addAssociations(digraph, clazz));
-
-		// then wire them together
-		allClasses.stream().filter(filter(prefix, coreDomain)).map(ClassInfo::load).forEach(clazz -> addAssociations(digraph, clazz));
-
-		// render into image
-		final String template = readResource("/viz-template.html");
-
-		String title = "Living Diagram";
-		final String content = graph.render().trim();
-		final String text = evaluate(template, title, content);
-		try {
-			outputDirectory.mkdirs();
-			write(outputDirectory.getPath(), "/livinggdiagram.html", text);
-		} catch (UnsupportedEncodingException | FileNotFoundException e) {
-			throw new MojoExecutionException("Unable to initialize classPath", e);
-		}
-	}
-
-	private ClassPath initClassPath() throws MojoExecutionException {
-		final ClassPath classPath;
-		try {
-			try {
-				classPath = ClassPath.from(getRuntimeClassLoader());
-			} catch (DependencyResolutionRequiredException e) {
-				throw new MojoExecutionException("Unable to load project runtime", e);
-			}
-		} catch (IOException e) {
-			throw new MojoExecutionException("Unable to initialize classPath", e);
-		}
-		return classPath;
-	}
-
-	private ClassLoader getRuntimeClassLoader() throws DependencyResolutionRequiredException, MalformedURLException {
-		List<String> runtimeClasspathElements = project.getRuntimeClasspathElements();
-		List<String> compileClasspathElements = project.getCompileClasspathElements();
-		URL[] runtimeUrls = new URL[runtimeClasspathElements.size() + compileClasspathElements.size()];
-		for (int i = 0; i < runtimeClasspathElements.size(); i++) {
-			String element = runtimeClasspathElements.get(i);
-			runtimeUrls[i] = new File(element).toURI().toURL();
-		}
-
-		int j = runtimeClasspathElements.size();
+	/**
+	 * Lay the diagram out at build time into a static SVG, so that the page shows without viz.js
+	 */
+	@Parameter(property = "livingdoc.diagram.svg", defaultValue = "false")
+	private boolean svg;
 
-		for (int i = 0; i < compileClasspathElements.size(); i++) {
-			String element = compileClasspathElements.get(i);
-			runtimeUrls[i + j] = new File(element).toURI().toURL();
-		}
+	/**
+	 * Number of nodes above which the biggest packages, then clusters, of the diagram are collapsed into nodes
+	 * linking to their own diagram, 0 for no maximum
+	 */
+	@Parameter(property = "livingdoc.diagram.maxNodes", defaultValue = "0")
+	private int maxNodes;
 
-		return new URLClassLoader(runtimeUrls, Thread.currentThread().getContextClassLoader());
-	}
+	/**
+	 * Number of edges above which the biggest packages, then clusters, of the diagram are collapsed, 0 for no
+	 * maximum
+	 */
+	@Parameter(property = "livingdoc.diagram.maxEdges", defaultValue = "0")
+	private int maxEdges;
 
-	private String getSuffixe(String packageName) {
-		return packageName.substring(packageName.lastIndexOf('.')+1);
-	}
+	/**
+	 * Directories or jars whose classes under the prefix are drawn too, besides the output directories of the projects
+	 */
+	@Parameter
+	private File[] extraClassRoots = new File[0];
 
-	private void addAssociations(Digraph digraph, Class clazz) {
-		// API
-		for (Field field : clazz.getDeclaredFields()) {
-            final Class<?> type = field.getType();
-            if (!type.isPrimitive()) {
-                digraph.addExistingAssociation(clazz.getName(), type.getName(), null, null, ASSOCIATION_EDGE_STYLE);
-            }
-        }
-		// SPI
-		for (Class intf : clazz.getInterfaces()) {
-            digraph.addExistingAssociation(intf.getName(), clazz.getName(), null, null, IMPLEMENTS_EDGE_STYLE);
-        }
-	}
+	/**
+	 * Directory of the scripts and stylesheets of the pages (default: lib in the output directory)
+	 */
+	@Parameter(property = "livingdoc.assetsDirectory")
+	private File assetsDirectory;
 
-	private void addNode(DotGraph.AbstractNode digraph, Class clazz) {
-		if (!clazz.getSimpleName().equalsIgnoreCase("package-info"))
-			digraph.addNode(clazz.getName()).setLabel(clazz.getSimpleName()).setComment(clazz.getSimpleName());
-	}
+	/**
+	 * Directory where the fingerprints of the inputs of the documents are kept between two builds
+	 */
+	@Parameter(defaultValue = "${project.build.directory}/livingdoc-cache")
+	private File cacheDirectory;
 
-	private Predicate<ClassInfo> filter(final String prefix, final String layer) {
-		return ci -> ci.getPackageName().startsWith(prefix)
-				&& !ci.getSimpleName().endsWith("Test") && !ci.getSimpleName().endsWith("IT")
-				&& ci.getPackageName().endsWith("." + layer)
-				&& Arrays.stream(packageExcludes).noneMatch( excl -> ci.getPackageName().matches(excl) ) ;
-	}
+	/**
+	 * Generate the documents even when their inputs did not change since the previous build
+	 */
+	@Parameter(property = "livingdoc.force", defaultValue = "false")
+	private boolean force;
 
-	private Predicate<ClassInfo> filter(final String prefix, final String[] clusters) {
-		return ci -> ci.getPackageName().startsWith(prefix)
-				&& !ci.getSimpleName().endsWith("Test") && !ci.getSimpleName().endsWith("IT")
-				&& Arrays.stream(clusters).anyMatch(c -> ci.getPackageName().endsWith("." + c))
-				&& Arrays.stream(packageExcludes).noneMatch( excl -> ci.getPackageName().matches(excl) ) ;
-	}
+	/**
+	 * File where the timings and the counters of the livingdoc goals of the build are reported
+	 */
+	@Parameter(defaultValue = "${project.build.directory}/livingdoc-metrics.json")
+	private File metricsFile;
 
-	private Predicate<ClassInfo> filterNot(final String prefix, final String layer) {
-		return ci -> ci.getPackageName().startsWith(prefix)
-				&& !ci.getSimpleName().endsWith("Test") && !ci.getSimpleName().endsWith("IT")
-				&& !ci.getPackageName().endsWith("." + layer)
-				&& Arrays.stream(packageExcludes).noneMatch( excl -> ci.getPackageName().matches(excl) );
+	@Override
+	public void execute() throws MojoExecutionException {
+		final Metrics metrics = Metrics.start("diagram");
+		final Renderer renderer = new DiagramRenderer.Builder(Collections.singletonList(project), prefix,
+				outputDirectory).coreDomain(coreDomain).packageExcludes(packageExcludes).clusters(clusters)
+				.scanner(scanner).svg(svg).budget(maxNodes, maxEdges).extraRoots(Arrays.asList(extraClassRoots))
+				.assetsDirectory(assetsDirectory).build();
+		UpToDateRenderer.of(renderer, cacheDirectory, force, getLog()).render(null);
+		metrics.addAll(renderer.getMetrics()).report(cacheDirectory, metricsFile, getLog());
 	}
 
 }
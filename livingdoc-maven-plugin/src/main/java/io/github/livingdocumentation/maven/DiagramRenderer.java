@@ -0,0 +1,513 @@
+package io.github.livingdocumentation.maven;
+
+import com.google.common.io.ByteSource;
+import com.google.common.io.ByteStreams;
+import io.github.livingdocumentation.dotdiagram.DotGraph;
+import io.github.livingdocumentation.dotdiagram.DotGraph.Cluster;
+import io.github.livingdocumentation.dotdiagram.DotGraph.Digraph;
+import io.github.livingdocumentation.maven.ClassIndex.Category;
+import io.github.livingdocumentation.maven.commons.Assets;
+import io.github.livingdocumentation.maven.commons.ClassFileParser;
+import io.github.livingdocumentation.maven.commons.ClassModel;
+import io.github.livingdocumentation.maven.commons.Fingerprint;
+import io.github.livingdocumentation.maven.commons.Metrics;
+import io.github.livingdocumentation.maven.commons.Template;
+import io.github.livingdocumentation.maven.commons.SourceModel;
+import org.apache.maven.artifact.DependencyResolutionRequiredException;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.project.MavenProject;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static io.github.livingdocumentation.maven.commons.Template.text;
+import static io.github.livingdocumentation.dotdiagram.DotStyles.ASSOCIATION_EDGE_STYLE;
+import static io.github.livingdocumentation.dotdiagram.DotStyles.IMPLEMENTS_EDGE_STYLE;
+
+/**
+ * Living Diagram of the Hexagonal Architecture generated out of the compiled classes thanks
+ * to the package naming conventions.
+ */
+public class DiagramRenderer implements Renderer {
+
+	/**
+	 * Loads every class and reads it by reflection
+	 */
+	public static final String REFLECTION_SCANNER = "reflection";
+
+	/**
+	 * Parses the class files, no class is loaded
+	 */
+	public static final String BYTECODE_SCANNER = "bytecode";
+
+	private static final String OUTPUT_FILENAME = "livinggdiagram";
+
+	private final List<MavenProject> projects;
+	private final String prefix;
+	private final String coreDomain;
+	private final File outputDirectory;
+	private final String[] packageExcludes;
+	private final String[] clusters;
+	private final String scanner;
+	private final boolean svg;
+	private final int maxNodes;
+	private final int maxEdges;
+	private final List<File> extraRoots;
+	private final File assetsDirectory;
+	private final List<File> outputFiles = new ArrayList<>();
+	private final Metrics metrics = new Metrics("diagram");
+
+	/**
+	 * Options of the diagram, laid out in the browser, without budget and read by reflection by default
+	 */
+	public static final class Builder {
+		private final List<MavenProject> projects;
+		private final String prefix;
+		private final File outputDirectory;
+		private String coreDomain = "domain";
+		private String[] packageExcludes = new String[0];
+		private String[] clusters = new String[0];
+		private String scanner = REFLECTION_SCANNER;
+		private boolean svg;
+		private int maxNodes;
+		private int maxEdges;
+		private List<File> extraRoots = Collections.emptyList();
+		private File assetsDirectory;
+
+		/**
+		 * @param projects the projects whose classes make a single diagram, e.g. every module of a reactor
+		 */
+		public Builder(List<MavenProject> projects, String prefix, File outputDirectory) {
+			this.projects = projects;
+			this.prefix = prefix;
+			this.outputDirectory = outputDirectory;
+		}
+
+		public Builder coreDomain(String coreDomain) {
+			this.coreDomain = coreDomain;
+			return this;
+		}
+
+		public Builder packageExcludes(String[] packageExcludes) {
+			this.packageExcludes = packageExcludes;
+			return this;
+		}
+
+		public Builder clusters(String[] clusters) {
+			this.clusters = clusters;
+			return this;
+		}
+
+		public Builder scanner(String scanner) {
+			this.scanner = scanner;
+			return this;
+		}
+
+		/**
+		 * @param svg whether to lay the diagram out at build time into a static SVG, instead of in the browser with
+		 * viz.js
+		 */
+		public Builder svg(boolean svg) {
+			this.svg = svg;
+			return this;
+		}
+
+		/**
+		 * @param maxNodes the number of nodes above which packages, then clusters, are collapsed, 0 for no maximum
+		 * @param maxEdges the number of edges above which packages, then clusters, are collapsed, 0 for no maximum
+		 */
+		public Builder budget(int maxNodes, int maxEdges) {
+			this.maxNodes = maxNodes;
+			this.maxEdges = maxEdges;
+			return this;
+		}
+
+		/**
+		 * @param extraRoots the directories or archives whose classes under the prefix are drawn too, besides the
+		 * output directories of the projects
+		 */
+		public Builder extraRoots(List<File> extraRoots) {
+			this.extraRoots = extraRoots;
+			return this;
+		}
+
+		/**
+		 * @param assetsDirectory directory of the scripts of the pages, shared by the pages of several modules;
+		 * {@code null} for the <code>lib</code> directory of the output directory
+		 */
+		public Builder assetsDirectory(File assetsDirectory) {
+			this.assetsDirectory = assetsDirectory;
+			return this;
+		}
+
+		public DiagramRenderer build() {
+			return new DiagramRenderer(this);
+		}
+	}
+
+	private DiagramRenderer(Builder builder) {
+		this.projects = builder.projects;
+		this.prefix = builder.prefix;
+		this.coreDomain = builder.coreDomain;
+		this.outputDirectory = builder.outputDirectory;
+		this.packageExcludes = builder.packageExcludes;
+		this.clusters = builder.clusters;
+		this.scanner = builder.scanner;
+		this.svg = builder.svg;
+		this.maxNodes = builder.maxNodes;
+		this.maxEdges = builder.maxEdges;
+		this.extraRoots = builder.extraRoots;
+		this.assetsDirectory = builder.assetsDirectory != null ? builder.assetsDirectory
+				: new File(outputDirectory, "lib");
+	}
+
+	@Override
+	public String getName() {
+		return "diagram";
+	}
+
+	/**
+	 * The diagram is built out of the compiled classes, the source model is not used.
+	 */
+	@Override
+	public void render(SourceModel model) throws MojoExecutionException {
+		final ClassIndex index = new ClassIndex(prefix, coreDomain, clusters, packageExcludes);
+		final List<ClassModel> models;
+		try (Metrics.Phase phase = metrics.phase("load");
+			 URLClassLoader loader = REFLECTION_SCANNER.equals(scanner) ? newClassLoader() : null) {
+			final Function<ClassFile, ClassModel> reader = classReader(loader);
+			// read the classes in parallel, then add them in the order of the roots
+			models = scanClassFiles().parallelStream()
+					.filter(cf -> index.categorize(cf.getPackageName(), cf.getSimpleName()) != Category.EXCLUDED)
+					.map(reader)
+					.collect(Collectors.toList());
+		} catch (IOException e) {
+			throw new MojoExecutionException("Unable to read the classes under " + prefix, e);
+		} catch (ClassReadException e) {
+			throw new MojoExecutionException(e.getMessage(), e.getCause());
+		}
+		models.forEach(clazz -> index.add(clazz.getPackageName(), clazz.getSimpleName(), () -> clazz));
+		metrics.count("classesLoaded", models.size());
+
+		// the diagram, then the diagram of each node collapsed to fit the budget, and so on
+		final Map<String, ClassGraph> diagrams = new LinkedHashMap<>();
+		diagrams.put(OUTPUT_FILENAME, ClassGraph.of(index));
+		final Set<String> written = new HashSet<>();
+		final Assets assets = new Assets(assetsDirectory, metrics);
+		outputFiles.clear();
+		outputDirectory.mkdirs();
+		while (written.size() < diagrams.size()) {
+			final Map<String, ClassGraph> drillDowns = new LinkedHashMap<>();
+			for (Map.Entry<String, ClassGraph> diagram : diagrams.entrySet()) {
+				if (written.add(diagram.getKey())) {
+					write(diagram.getKey(), diagram.getValue().collapse(maxNodes, maxEdges, OUTPUT_FILENAME, drillDowns),
+							assets);
+				}
+			}
+			drillDowns.forEach(diagrams::putIfAbsent);
+		}
+		outputFiles.addAll(assets.getFiles());
+	}
+
+	private void write(String name, ClassGraph classes, Assets assets) throws MojoExecutionException {
+		final File page = new File(outputDirectory, name + ".html");
+		metrics.count("diagrams", 1).count("nodes", classes.getNodes().size())
+				.count("edges", classes.getEdges().size());
+		try {
+			if (svg) {
+				final DiagramLayout layout = metrics.time("layout", () -> toLayout(classes).layout());
+				final File image = new File(outputDirectory, name + ".svg");
+				try (Metrics.Phase phase = metrics.phase("write")) {
+					Template.of("/svg-template.html").write(page, text("Living Diagram"), layout::writeSvg);
+					Template.parse("{0}").write(image, layout::writeSvg);
+				}
+				outputFiles.add(page);
+				outputFiles.add(image);
+				metrics.countWritten(page, image);
+			} else {
+				// render into image
+				final String content = metrics.time("layout", () -> toGraph(classes).render().trim());
+				try (Metrics.Phase phase = metrics.phase("write")) {
+					Template.of("/viz-template.html").write(page, text("Living Diagram"), text(content),
+							text(assets.link("viz.js", page)));
+				}
+				outputFiles.add(page);
+				metrics.countWritten(page);
+			}
+		} catch (IOException e) {
+			throw new MojoExecutionException("Unable to write the diagram " + page, e);
+		}
+	}
+
+	/**
+	 * @param loader the loader of the classes for the reflection scanner, null for the bytecode scanner
+	 */
+	private Function<ClassFile, ClassModel> classReader(ClassLoader loader) throws MojoExecutionException {
+		if (REFLECTION_SCANNER.equals(scanner)) {
+			return cf -> {
+				try {
+					return ClassModel.of(loader.loadClass(cf.getName()));
+				} catch (ClassNotFoundException | LinkageError e) {
+					throw new ClassReadException("Unable to load the class " + cf.getName() + " of " + cf, e);
+				}
+			};
+		}
+		if (BYTECODE_SCANNER.equals(scanner)) {
+			return cf -> {
+				try {
+					return ClassFileParser.parse(cf.read());
+				} catch (IOException e) {
+					throw new ClassReadException("Unable to read the class file " + cf, e);
+				}
+			};
+		}
+		throw new MojoExecutionException("Unknown scanner " + scanner + ", expected " + REFLECTION_SCANNER
+				+ " or " + BYTECODE_SCANNER);
+	}
+
+	/**
+	 * Failure to read a class on a thread of the parallel stream. Without a public constructor, the stream
+	 * rethrows it as is instead of wrapping it into a new instance.
+	 */
+	private static final class ClassReadException extends RuntimeException {
+		private ClassReadException(String message, Throwable cause) {
+			super(message, cause);
+		}
+	}
+
+	/**
+	 * A top-level class file under the prefix
+	 */
+	private static final class ClassFile {
+		private final String name;
+		private final String location;
+		private final ByteSource bytes;
+
+		private ClassFile(String name, String location, ByteSource bytes) {
+			this.name = name;
+			this.location = location;
+			this.bytes = bytes;
+		}
+
+		String getName() {
+			return name;
+		}
+
+		String getPackageName() {
+			return name.substring(0, Math.max(0, name.lastIndexOf('.')));
+		}
+
+		String getSimpleName() {
+			return name.substring(name.lastIndexOf('.') + 1);
+		}
+
+		byte[] read() throws IOException {
+			return bytes.read();
+		}
+
+		/**
+		 * @return the path of the class file, in its archive for an archive
+		 */
+		@Override
+		public String toString() {
+			return location;
+		}
+	}
+
+	/**
+	 * Lists the top-level class files of the packages under the prefix, only walking the directory of the
+	 * prefix in each root. A class found in several roots is read from the first one.
+	 */
+	private List<ClassFile> scanClassFiles() throws IOException {
+		final String path = prefix.replace('.', '/');
+		final Map<String, ClassFile> classFiles = new LinkedHashMap<>();
+		for (File root : getRoots()) {
+			if (root.isDirectory()) {
+				final File directory = new File(root, path);
+				if (!directory.isDirectory()) {
+					continue;
+				}
+				final List<Path> files;
+				try (Stream<Path> walk = Files.walk(directory.toPath())) {
+					files = walk.filter(f -> isTopLevelClass(f.getFileName().toString())).sorted()
+							.collect(Collectors.toList());
+				}
+				for (Path file : files) {
+					final String relative = root.toPath().relativize(file).toString().replace(File.separatorChar, '/');
+					classFiles.putIfAbsent(className(relative), new ClassFile(className(relative), file.toString(),
+							com.google.common.io.Files.asByteSource(file.toFile())));
+				}
+			} else if (root.isFile()) {
+				try (JarFile jar = new JarFile(root)) {
+					for (JarEntry entry : Collections.list(jar.entries())) {
+						final String name = entry.getName();
+						if (name.startsWith(path + "/") && isTopLevelClass(name.substring(name.lastIndexOf('/') + 1))) {
+							try (InputStream in = jar.getInputStream(entry)) {
+								classFiles.putIfAbsent(className(name), new ClassFile(className(name),
+										root + "!/" + name, ByteSource.wrap(ByteStreams.toByteArray(in))));
+							}
+						}
+					}
+				}
+			}
+		}
+		return new ArrayList<>(classFiles.values());
+	}
+
+	private static boolean isTopLevelClass(String fileName) {
+		return fileName.endsWith(".class") && fileName.indexOf('$') < 0 && !fileName.equals("package-info.class");
+	}
+
+	private static String className(String path) {
+		return path.substring(0, path.length() - ".class".length()).replace('/', '.');
+	}
+
+	/**
+	 * @return the output directory of each project, then the extra roots
+	 */
+	private List<File> getRoots() {
+		final Set<File> roots = new LinkedHashSet<>();
+		for (MavenProject project : projects) {
+			roots.add(new File(project.getBuild().getOutputDirectory()));
+		}
+		roots.addAll(extraRoots);
+		return new ArrayList<>(roots);
+	}
+
+	/**
+	 * @return the loader of the roots, backed by the classpath of the projects so that the classes link
+	 */
+	private URLClassLoader newClassLoader() throws MojoExecutionException {
+		final Set<File> elements = new LinkedHashSet<>(getRoots());
+		try {
+			elements.addAll(getClasspathElements());
+			final List<URL> urls = new ArrayList<>();
+			for (File element : elements) {
+				urls.add(element.toURI().toURL());
+			}
+			return new URLClassLoader(urls.toArray(new URL[0]), Thread.currentThread().getContextClassLoader());
+		} catch (DependencyResolutionRequiredException e) {
+			throw new MojoExecutionException("Unable to load project runtime", e);
+		} catch (MalformedURLException e) {
+			throw new MojoExecutionException("Unable to load project runtime", e);
+		}
+	}
+
+	/**
+	 * @return the runtime then the compile classpath elements of each project, without duplicates
+	 */
+	private List<File> getClasspathElements() throws DependencyResolutionRequiredException {
+		final Set<File> elements = new LinkedHashSet<>();
+		for (MavenProject project : projects) {
+			for (String element : project.getRuntimeClasspathElements()) {
+				elements.add(new File(element));
+			}
+			for (String element : project.getCompileClasspathElements()) {
+				elements.add(new File(element));
+			}
+		}
+		return new ArrayList<>(elements);
+	}
+
+	/**
+	 * The class files under the prefix in the roots are hashed, archives only by size and modification time. The
+	 * rest of the classpath is left out: the classes are only read for the names they refer to.
+	 */
+	@Override
+	public void fingerprint(SourceModel model, Fingerprint fingerprint) throws IOException {
+		fingerprint.put("prefix", prefix).put("coreDomain", coreDomain).put("packageExcludes", packageExcludes)
+				.put("clusters", clusters).put("scanner", scanner).put("svg", svg)
+				.put("maxNodes", maxNodes).put("maxEdges", maxEdges).put("extraRoots", extraRoots)
+				.put("assetsDirectory", assetsDirectory.getAbsolutePath());
+		for (File root : getRoots()) {
+			if (root.isDirectory()) {
+				fingerprint.putFile(new File(root, prefix.replace('.', File.separatorChar)));
+			} else {
+				fingerprint.putFileStamp(root);
+			}
+		}
+	}
+
+	@Override
+	public List<File> getOutputFiles() {
+		return outputFiles;
+	}
+
+	@Override
+	public Metrics getMetrics() {
+		return metrics;
+	}
+
+	/**
+	 * @return the graph of the classes of the index, the core domain in the hexagon and each cluster in a box
+	 */
+	public static DotGraph toGraph(ClassIndex index) {
+		return toGraph(ClassGraph.of(index));
+	}
+
+	/**
+	 * @return the dot graph of the classes, the core domain in the hexagon and each cluster in a box, the
+	 * collapsed nodes linking to their own diagram
+	 */
+	public static DotGraph toGraph(ClassGraph classes) {
+		final DotGraph graph = new DotGraph(classes.getTitle(), "LR");
+		final Digraph digraph = graph.getDigraph();
+		digraph.setOptions("rankdir=LR");
+
+		final Map<String, Cluster> digraphClusters = new HashMap<>();
+		classes.getGroups().forEach((name, label) -> {
+			final Cluster cluster = digraph.addCluster(name);
+			cluster.setLabel(label);
+			digraphClusters.put(name, cluster);
+		});
+
+		for (ClassGraph.Node node : classes.getNodes()) {
+			final DotGraph.AbstractNode parent = node.getGroup() == null ? digraph : digraphClusters.get(node.getGroup());
+			final DotGraph.AbstractNode added = parent.addNode(node.getId()).setLabel(node.getLabel())
+					.setComment(node.getLabel());
+			if (node.getLink() != null) {
+				added.setOptions("URL=\"" + node.getLink() + ".html\",style=filled,fillcolor=lightgrey");
+			}
+		}
+
+		for (ClassGraph.Edge edge : classes.getEdges()) {
+			final String label = edge.getCount() > 1 ? String.valueOf(edge.getCount()) : null;
+			digraph.addExistingAssociation(edge.getFrom(), edge.getTo(), label, null,
+					edge.getKind() == ClassGraph.EdgeKind.IMPLEMENTS ? IMPLEMENTS_EDGE_STYLE : ASSOCIATION_EDGE_STYLE);
+		}
+		return graph;
+	}
+
+	/**
+	 * @return the same graph as {@link #toGraph(ClassGraph)}, to be laid out at build time
+	 */
+	public static DiagramLayout toLayout(ClassGraph classes) {
+		final DiagramLayout layout = new DiagramLayout(classes.getTitle());
+		classes.getGroups().forEach((name, label) -> layout.addGroup(name, label, ClassGraph.HEXAGON.equals(name)));
+		classes.getNodes().forEach(n -> layout.addNode(n.getId(), n.getLabel(), n.getGroup(),
+				n.getLink() == null ? null : n.getLink() + ".html"));
+		classes.getEdges().forEach(e -> layout.addEdge(e.getFrom(), e.getTo(), e.getKind(), e.getCount()));
+		return layout;
+	}
+
+}
@@ -0,0 +1,49 @@
+package io.github.livingdocumentation.maven;
+
+import io.github.livingdocumentation.maven.commons.SharedAsciidoctor;
+import io.github.livingdocumentation.maven.commons.SourceModel;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+/**
+ * Single glossary of the classes of every module of the reactor.
+ */
+@Mojo(name = "glossary-aggregate", aggregator = true, threadSafe = true)
+public class GlossaryAggregateMojo extends AbstractAggregateMojo {
+
+    /**
+     * Output format of the glossary (default html, others : adoc)
+     */
+    @Parameter(defaultValue = "html")
+    private String format;
+
+    /**
+     * Annotation used to comment classes that will be included in the glossary (default: Glossary)
+     */
+    @Parameter(defaultValue = "Glossary")
+    private String annotation;
+
+    /**
+     * Split the html glossary into a page per initial letter
+     */
+    @Parameter(property = "livingdoc.glossary.paged", defaultValue = "false")
+    private boolean paged;
+
+    /**
+     * Number of files parsed at a time, 0 to parse every file at once
+     */
+    @Parameter(property = "livingdoc.batchSize", defaultValue = "0")
+    private int batchSize;
+
+    @Override
+    public void execute() throws MojoExecutionException {
+        try {
+            render(new GlossaryRenderer.Builder(outputDirectory).format(format).annotation(annotation).paged(paged)
+                            .assetsDirectory(assetsDirectory).batchSize(batchSize).build(),
+                    scanSources(SourceModel.JAVA_FILES, new String[0], batchSize == 0));
+        } finally {
+            SharedAsciidoctor.releaseAtEndOf(session);
+        }
+    }
+}
@@ -1,26 +1,26 @@
 package io.github.livingdocumentation.maven;
 
-import com.thoughtworks.qdox.JavaProjectBuilder;
-import com.thoughtworks.qdox.model.JavaClass;
-import io.github.robwin.markup.builder.MarkupDocBuilder;
-import io.github.robwin.markup.builder.asciidoc.AsciiDocBuilder;
+import io.github.livingdocumentation.maven.commons.Metrics;
+import io.github.livingdocumentation.maven.commons.SharedAsciidoctor;
+import io.github.livingdocumentation.maven.commons.SourceModel;
+import org.apache.maven.execution.MavenSession;
 import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
 import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
-import org.asciidoctor.Asciidoctor;
-import org.asciidoctor.OptionsBuilder;
-import org.asciidoctor.SafeMode;
 
 import java.io.*;
-import java.nio.charset.StandardCharsets;
 import java.util.List;
 
-@Mojo(name = "glossary")
+@Mojo(name = "glossary", threadSafe = true)
 public class GlossaryMojo extends AbstractMojo {
 
-    private static final String OUTPUT_FILENAME = "glossary";
+    /**
+     * The current build session (readonly)
+     */
+    @Parameter(defaultValue = "${session}", readonly = true, required = true)
+    private MavenSession session;
 
     /**
      * List of source directories to browse
@@ -46,49 +46,54 @@ public class GlossaryMojo extends AbstractMojo {
     @Parameter(defaultValue = "Glossary")
     private String annotation;
 
-    @Override
-    public void execute() throws MojoExecutionException, MojoFailureException {
-        JavaProjectBuilder javaDocBuilder = buildJavaProjectBuilder();
+    /**
+     * Split the html glossary into a page per initial letter
+     */
+    @Parameter(property = "livingdoc.glossary.paged", defaultValue = "false")
+    private boolean paged;
 
-        AsciiDocBuilder asciiDocBuilder = new AsciiDocBuilder();
-        asciiDocBuilder.documentTitle("Glossary");
+    /**
+     * Directory of the scripts and stylesheets of the pages (default: lib in the output directory)
+     */
+    @Parameter(property = "livingdoc.assetsDirectory")
+    private File assetsDirectory;
 
-        javaDocBuilder.getClasses()
-                .stream()
-                .filter(this::hasAnnotation)
-                .forEach(c -> {
-                    asciiDocBuilder.sectionTitleLevel1(c.getName());
-                    writeBlankLine(asciiDocBuilder);
-                    asciiDocBuilder.textLine(c.getComment());
-                    writeBlankLine(asciiDocBuilder);
-                });
+    /**
+     * Number of files parsed at a time, 0 to parse every file at once
+     */
+    @Parameter(property = "livingdoc.batchSize", defaultValue = "0")
+    private int batchSize;
 
-        outputDirectory.mkdirs();
-        try {
-            asciiDocBuilder.writeToFile(outputDirectory.getAbsolutePath(), OUTPUT_FILENAME, StandardCharsets.UTF_8);
-            if ("html".equals(format)) {
-                Asciidoctor asciidoctor = Asciidoctor.Factory.create();
-                File asciidocFile = new File(outputDirectory, OUTPUT_FILENAME  + ".adoc");
-                asciidoctor.convertFile(asciidocFile, OptionsBuilder.options().backend("html5").safe(SafeMode.UNSAFE).asMap());
-            }
-        } catch (IOException e) {
-            throw new UncheckedIOException(e);
-        }
-    }
+    /**
+     * Directory where the fingerprints of the inputs of the documents are kept between two builds
+     */
+    @Parameter(defaultValue = "${project.build.directory}/livingdoc-cache")
+    private File cacheDirectory;
 
-    private static MarkupDocBuilder writeBlankLine(AsciiDocBuilder asciiDocBuilder) {
-        return asciiDocBuilder.textLine("");
-    }
+    /**
+     * Generate the documents even when their inputs did not change since the previous build
+     */
+    @Parameter(property = "livingdoc.force", defaultValue = "false")
+    private boolean force;
 
-    private boolean hasAnnotation(JavaClass javaClass) {
-        return javaClass.getAnnotations().stream()
-                .anyMatch(a -> a.getType().getFullyQualifiedName().endsWith(annotation));
-    }
+    /**
+     * File where the timings and the counters of the livingdoc goals of the build are reported
+     */
+    @Parameter(defaultValue = "${project.build.directory}/livingdoc-metrics.json")
+    private File metricsFile;
 
-    private JavaProjectBuilder buildJavaProjectBuilder() {
-        JavaProjectBuilder javaDocBuilder = new JavaProjectBuilder();
-        javaDocBuilder.setErrorHandler(e -> getLog().warn(e.getMessage()));
-        sources.stream().map(File::new).forEach(javaDocBuilder::addSourceTree);
-        return javaDocBuilder;
+    @Override
+    public void execute() throws MojoExecutionException, MojoFailureException {
+        final Metrics metrics = Metrics.start("glossary");
+        try {
+            final SourceModel model = metrics.time("scan", () -> SourceModel.scan(sources, getLog()));
+            metrics.count("filesScanned", model.getFiles().size());
+            final Renderer renderer = new GlossaryRenderer.Builder(outputDirectory).format(format)
+                    .annotation(annotation).paged(paged).assetsDirectory(assetsDirectory).batchSize(batchSize).build();
+            UpToDateRenderer.of(renderer, cacheDirectory, force, getLog()).render(model);
+            metrics.addAll(renderer.getMetrics()).report(cacheDirectory, metricsFile, getLog());
+        } finally {
+            SharedAsciidoctor.releaseAtEndOf(session);
+        }
     }
 }
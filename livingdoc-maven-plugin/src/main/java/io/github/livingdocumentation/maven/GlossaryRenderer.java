@@ -0,0 +1,311 @@
+package io.github.livingdocumentation.maven;
+
+import com.google.common.io.CharSource;
+import io.github.livingdocumentation.maven.commons.Assets;
+import io.github.livingdocumentation.maven.commons.AtomicFiles;
+import io.github.livingdocumentation.maven.commons.Fingerprint;
+import io.github.livingdocumentation.maven.commons.GlossaryIndex;
+import io.github.livingdocumentation.maven.commons.Metrics;
+import io.github.livingdocumentation.maven.commons.SharedAsciidoctor;
+import io.github.livingdocumentation.maven.commons.SourceClass;
+import io.github.livingdocumentation.maven.commons.SourceModel;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.asciidoctor.OptionsBuilder;
+import org.asciidoctor.SafeMode;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Glossary of the classes marked with the glossary annotation, generated as AsciiDoc in memory and either
+ * written as is or converted to HTML, on a single page or on a page per initial letter.
+ */
+public class GlossaryRenderer implements Renderer {
+
+    private static final String OUTPUT_FILENAME = "glossary";
+    private static final String INDEX_DIRECTORY = "glossary-index";
+    private static final String NEW_LINE = System.getProperty("line.separator");
+
+    private final File outputDirectory;
+    private final String format;
+    private final String annotation;
+    private final boolean paged;
+    private final File assetsDirectory;
+    private final int batchSize;
+    private final List<File> outputFiles = new ArrayList<>();
+    private final Metrics metrics = new Metrics("glossary");
+
+    /**
+     * Options of the glossary, the format html and the annotation <code>Glossary</code> by default
+     */
+    public static final class Builder {
+        private final File outputDirectory;
+        private String format = "html";
+        private String annotation = "Glossary";
+        private boolean paged;
+        private File assetsDirectory;
+        private int batchSize;
+
+        public Builder(File outputDirectory) {
+            this.outputDirectory = outputDirectory;
+        }
+
+        public Builder format(String format) {
+            this.format = format;
+            return this;
+        }
+
+        public Builder annotation(String annotation) {
+            this.annotation = annotation;
+            return this;
+        }
+
+        /**
+         * @param paged whether to split the html glossary into a page per initial letter, searched through an
+         * index sharded by initial character and loaded by the pages on demand
+         */
+        public Builder paged(boolean paged) {
+            this.paged = paged;
+            return this;
+        }
+
+        /**
+         * @param assetsDirectory directory of the search script of the pages, shared by the pages of several
+         * modules; {@code null} for the <code>lib</code> directory of the output directory
+         */
+        public Builder assetsDirectory(File assetsDirectory) {
+            this.assetsDirectory = assetsDirectory;
+            return this;
+        }
+
+        /**
+         * @param batchSize the number of files parsed at a time, keeping only the annotated classes, so that the
+         * memory used does not grow with the number of files; 0 to parse the files at once, sharing the classes
+         * with the other documents
+         */
+        public Builder batchSize(int batchSize) {
+            this.batchSize = batchSize;
+            return this;
+        }
+
+        public GlossaryRenderer build() {
+            return new GlossaryRenderer(this);
+        }
+    }
+
+    private GlossaryRenderer(Builder builder) {
+        this.outputDirectory = builder.outputDirectory;
+        this.format = builder.format;
+        this.annotation = builder.annotation;
+        this.paged = builder.paged;
+        this.assetsDirectory = builder.assetsDirectory != null ? builder.assetsDirectory
+                : new File(outputDirectory, "lib");
+        this.batchSize = builder.batchSize;
+    }
+
+    @Override
+    public String getName() {
+        return "glossary";
+    }
+
+    @Override
+    public void render(SourceModel model) throws MojoExecutionException {
+        final List<SourceClass> classes = metrics.time("parse", () -> batchSize > 0
+                ? model.getClassesInBatches(null, annotation, batchSize, this::isGlossaryAnnotation)
+                : model.getClasses(null, annotation));
+        final List<SourceClass> entries = classes.stream().filter(this::hasAnnotation).collect(Collectors.toList());
+        metrics.count("classesParsed", classes.size()).count("entries", entries.size());
+
+        outputDirectory.mkdirs();
+        outputFiles.clear();
+        try {
+            if (paged && isHtml()) {
+                renderPaged(entries);
+            } else {
+                final StringBuilder asciiDoc = new StringBuilder();
+                try (Metrics.Phase phase = metrics.phase("render")) {
+                    documentTitle(asciiDoc, "Glossary");
+                    entries.forEach(c -> entry(asciiDoc, c));
+                }
+                write(getOutputFile(), asciiDoc);
+            }
+        } catch (IOException e) {
+            throw new MojoExecutionException("Unable to write the glossary in " + outputDirectory, e);
+        }
+    }
+
+    /**
+     * Writes the first page, with the initial letters and the search only, a page per initial letter and the
+     * index of the words of the entries.
+     */
+    private void renderPaged(List<SourceClass> entries) throws IOException {
+        final Map<String, List<SourceClass>> letters = new TreeMap<>();
+        entries.forEach(c -> letters.computeIfAbsent(letter(c.getName()), l -> new ArrayList<>()).add(c));
+        final Assets assets = new Assets(assetsDirectory, metrics);
+        final GlossaryIndex index = new GlossaryIndex();
+        final Set<String> ids = new HashSet<>();
+
+        final File first = getOutputFile();
+        final StringBuilder firstPage = new StringBuilder();
+        documentTitle(firstPage, "Glossary");
+        header(firstPage, letters.keySet());
+        textLine(firstPage, entries.size() + " entries");
+        writeBlankLine(firstPage);
+        footer(firstPage, assets.link("glossary-search.js", first));
+        write(first, firstPage);
+
+        for (Map.Entry<String, List<SourceClass>> letter : letters.entrySet()) {
+            final File page = new File(outputDirectory, pageName(letter.getKey()));
+            final StringBuilder asciiDoc = new StringBuilder();
+            try (Metrics.Phase phase = metrics.phase("render")) {
+                documentTitle(asciiDoc, "Glossary: " + label(letter.getKey()));
+                header(asciiDoc, letters.keySet());
+                for (SourceClass c : letter.getValue()) {
+                    final String name = c.getName().replaceAll("[^A-Za-z0-9_]", "_");
+                    String id = name;
+                    for (int n = 2; !ids.add(id); n++) {
+                        id = name + "-" + n;
+                    }
+                    textLine(asciiDoc, "[[" + id + "]]");
+                    entry(asciiDoc, c);
+                    index.add(c.getName(), c.getComment(), page.getName() + "#" + id);
+                }
+                footer(asciiDoc, assets.link("glossary-search.js", page));
+            }
+            write(page, asciiDoc);
+        }
+
+        try (Metrics.Phase phase = metrics.phase("index")) {
+            final List<File> shards = index.write(new File(outputDirectory, INDEX_DIRECTORY));
+            outputFiles.addAll(shards);
+            metrics.count("pages", letters.size() + 1).count("indexShards", shards.size())
+                    .count("indexWords", index.size()).countWritten(shards.toArray(new File[0]));
+        }
+        outputFiles.addAll(assets.getFiles());
+    }
+
+    private void write(File file, StringBuilder asciiDoc) throws IOException {
+        final boolean html = isHtml();
+        try (Metrics.Phase phase = metrics.phase(html ? "convert" : "write")) {
+            AtomicFiles.write(file, temporary -> {
+                try (Writer out = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+                    if (html) {
+                        // the document is converted from memory, without writing the asciidoc file
+                        SharedAsciidoctor.convert(CharSource.wrap(asciiDoc).openStream(), out, OptionsBuilder.options()
+                                .backend("html5").headerFooter(true).safe(SafeMode.UNSAFE).asMap());
+                    } else {
+                        out.append(asciiDoc);
+                    }
+                }
+            });
+        }
+        outputFiles.add(file);
+        metrics.countWritten(file);
+    }
+
+    @Override
+    public void fingerprint(SourceModel model, Fingerprint fingerprint) {
+        fingerprint.put("format", format).put("annotation", annotation).put("paged", paged)
+                .put("assetsDirectory", assetsDirectory.getAbsolutePath()).putSources(model.getFiles(), batchSize == 0);
+    }
+
+    @Override
+    public List<File> getOutputFiles() {
+        return outputFiles;
+    }
+
+    @Override
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    private boolean isHtml() {
+        return "html".equals(format);
+    }
+
+    private File getOutputFile() {
+        return new File(outputDirectory, OUTPUT_FILENAME + (isHtml() ? ".html" : ".adoc"));
+    }
+
+    /**
+     * @return the initial letter of the name, in upper case, or <code>other</code>
+     */
+    private static String letter(String name) {
+        final char initial = Character.toUpperCase(name.charAt(0));
+        return initial >= 'A' && initial <= 'Z' ? String.valueOf(initial) : "other";
+    }
+
+    private static String label(String letter) {
+        return letter.length() == 1 ? letter : "#";
+    }
+
+    private static String pageName(String letter) {
+        return OUTPUT_FILENAME + "-" + letter + ".html";
+    }
+
+    /**
+     * Writes the links to the pages of the letters and the search field, passed through as html
+     */
+    private static void header(StringBuilder asciiDoc, Set<String> letters) {
+        textLine(asciiDoc, "++++");
+        asciiDoc.append("<p class=\"glossary-letters\">");
+        for (String letter : letters) {
+            asciiDoc.append("<a href=\"").append(pageName(letter)).append("\">").append(label(letter)).append("</a> ");
+        }
+        textLine(asciiDoc, "</p>");
+        textLine(asciiDoc, "<div id=\"glossary-search\" data-index=\"" + INDEX_DIRECTORY + "/\">"
+                + "<input type=\"search\" placeholder=\"Search the glossary\" autocomplete=\"off\"><ul></ul></div>");
+        textLine(asciiDoc, "++++");
+        writeBlankLine(asciiDoc);
+    }
+
+    private static void footer(StringBuilder asciiDoc, String searchScript) {
+        textLine(asciiDoc, "++++");
+        textLine(asciiDoc, "<script src=\"" + searchScript + "\"></script>");
+        textLine(asciiDoc, "++++");
+    }
+
+    private static void entry(StringBuilder asciiDoc, SourceClass c) {
+        sectionTitleLevel1(asciiDoc, c.getName());
+        writeBlankLine(asciiDoc);
+        textLine(asciiDoc, c.getComment());
+        writeBlankLine(asciiDoc);
+    }
+
+    // same markup as the AsciiDocBuilder of markup-document-builder
+
+    private static void documentTitle(StringBuilder asciiDoc, String title) {
+        textLine(asciiDoc.append("= "), title);
+        writeBlankLine(asciiDoc);
+    }
+
+    private static void sectionTitleLevel1(StringBuilder asciiDoc, String title) {
+        textLine(asciiDoc.append("== "), title);
+    }
+
+    private static void textLine(StringBuilder asciiDoc, String text) {
+        asciiDoc.append(text).append(NEW_LINE);
+    }
+
+    private static void writeBlankLine(StringBuilder asciiDoc) {
+        asciiDoc.append(NEW_LINE);
+    }
+
+    private boolean hasAnnotation(SourceClass sourceClass) {
+        return sourceClass.getAnnotations().stream().anyMatch(this::isGlossaryAnnotation);
+    }
+
+    private boolean isGlossaryAnnotation(SourceClass.Annotation a) {
+        return a.getType().endsWith(annotation);
+    }
+}
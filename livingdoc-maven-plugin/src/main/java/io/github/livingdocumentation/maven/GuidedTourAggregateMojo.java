@@ -0,0 +1,51 @@
+package io.github.livingdocumentation.maven;
+
+import io.github.livingdocumentation.maven.commons.SourceModel;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+/**
+ * Guided tours whose steps can be spread over every module of the reactor.
+ */
+@Mojo(name = "tour-aggregate", aggregator = true, threadSafe = true)
+public class GuidedTourAggregateMojo extends AbstractAggregateMojo {
+
+    /**
+     * Package prefix of classes to browse for Guided Tour documentation
+     */
+    @Parameter
+    private String prefix;
+
+    /**
+     * Fully qualified annotation marking classes of the guided tour
+     */
+    @Parameter
+    private String tourAnnotation;
+
+    /**
+     * Root link to CVS, used for links in generated documentation
+     */
+    @Parameter
+    private String repositoryLink;
+
+    /**
+     * Strapdown theme name (united, cerulean or bootstrap)
+     */
+    @Parameter
+    private String theme = "united";
+
+    /**
+     * Number of files parsed at a time, 0 to parse every file at once
+     */
+    @Parameter(property = "livingdoc.batchSize", defaultValue = "0")
+    private int batchSize;
+
+    @Override
+    public void execute() throws MojoExecutionException {
+        render(new GuidedTourRenderer.Builder(prefix, tourAnnotation, outputDirectory).repositoryLink(repositoryLink)
+                        .theme(theme).assetsDirectory(assetsDirectory).batchSize(batchSize)
+                        .sourceRoot(session.getTopLevelProject().getBasedir()).build(),
+                scanSources(SourceModel.javaFilesUnder(prefix), new String[0], batchSize == 0));
+    }
+}
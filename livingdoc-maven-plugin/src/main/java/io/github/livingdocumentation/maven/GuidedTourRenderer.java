@@ -0,0 +1,321 @@
+package io.github.livingdocumentation.maven;
+
+import io.github.livingdocumentation.maven.commons.Assets;
+import io.github.livingdocumentation.maven.commons.Fingerprint;
+import io.github.livingdocumentation.maven.commons.Metrics;
+import io.github.livingdocumentation.maven.commons.SourceClass;
+import io.github.livingdocumentation.maven.commons.SourceModel;
+import io.github.livingdocumentation.maven.commons.Template;
+import org.apache.maven.plugin.MojoExecutionException;
+
+import java.io.*;
+import java.util.*;
+
+import static io.github.livingdocumentation.maven.commons.Template.text;
+
+/**
+ * Guided tours: one strapdown page per tour, listing the steps marked with the tour annotation in rank order.
+ */
+public class GuidedTourRenderer implements Renderer {
+
+    private static final String SEP = "\n\n";
+    // the themes bundled in the shared resources
+    private static final List<String> THEMES = Arrays.asList("united", "cerulean", "bootstrap");
+
+    private final String prefix;
+    private final String tourAnnotation;
+    private final String repositoryLink;
+    private final String theme;
+    private final File outputDirectory;
+    private final File assetsDirectory;
+    private final int batchSize;
+    private final File sourceRoot;
+
+    private final Map<String, Tour> tours = new HashMap<String, Tour>();
+    private final List<File> outputFiles = new ArrayList<File>();
+    private final Metrics metrics = new Metrics("tour");
+
+    private static class Tour {
+        private final SortedMap<Integer, String> sites = new TreeMap<Integer, String>();
+
+        public String put(int step, String describtion) {
+            return sites.put(step, describtion);
+        }
+
+        @Override
+        public String toString() {
+            return sites.toString();
+        }
+
+    }
+
+    private static class TourStep {
+        private final String name;
+        private final String description;
+        private final int step;
+
+        public String name() {
+            return name;
+        }
+
+        public String description() {
+            return description;
+        }
+
+        public int step() {
+            return step;
+        }
+
+        public TourStep(String name, String description, int step) {
+            this.name = name;
+            this.description = description;
+            this.step = step;
+        }
+
+    }
+
+    /**
+     * Options of the guided tours, the theme <code>united</code> by default
+     */
+    public static final class Builder {
+        private final String prefix;
+        private final String tourAnnotation;
+        private final File outputDirectory;
+        private String repositoryLink;
+        private String theme = "united";
+        private File assetsDirectory;
+        private int batchSize;
+        private File sourceRoot;
+
+        public Builder(String prefix, String tourAnnotation, File outputDirectory) {
+            this.prefix = prefix;
+            this.tourAnnotation = tourAnnotation;
+            this.outputDirectory = outputDirectory;
+        }
+
+        public Builder repositoryLink(String repositoryLink) {
+            this.repositoryLink = repositoryLink;
+            return this;
+        }
+
+        public Builder theme(String theme) {
+            this.theme = theme;
+            return this;
+        }
+
+        /**
+         * @param assetsDirectory directory of the scripts and stylesheets of the pages, shared by the pages of
+         * several modules; {@code null} for the <code>lib</code> directory of the output directory
+         */
+        public Builder assetsDirectory(File assetsDirectory) {
+            this.assetsDirectory = assetsDirectory;
+            return this;
+        }
+
+        /**
+         * @param batchSize the number of files parsed at a time, keeping only the steps of the tours and the code
+         * of their methods, so that the memory used does not grow with the number of files; 0 to parse the files
+         * at once, sharing the classes with the other documents
+         */
+        public Builder batchSize(int batchSize) {
+            this.batchSize = batchSize;
+            return this;
+        }
+
+        /**
+         * @param sourceRoot the directory the links to the sources are relative to, like the root of a reactor
+         * whose modules each have their sources; {@code null} for <code>src/main/java</code>
+         */
+        public Builder sourceRoot(File sourceRoot) {
+            this.sourceRoot = sourceRoot;
+            return this;
+        }
+
+        public GuidedTourRenderer build() {
+            return new GuidedTourRenderer(this);
+        }
+    }
+
+    protected GuidedTourRenderer(Builder builder) {
+        this.prefix = builder.prefix;
+        this.tourAnnotation = builder.tourAnnotation;
+        this.repositoryLink = builder.repositoryLink;
+        this.theme = builder.theme;
+        this.outputDirectory = builder.outputDirectory;
+        this.assetsDirectory = builder.assetsDirectory != null ? builder.assetsDirectory
+                : new File(outputDirectory, "lib");
+        this.batchSize = builder.batchSize;
+        this.sourceRoot = builder.sourceRoot;
+    }
+
+    @Override
+    public String getName() {
+        return "tour";
+    }
+
+    @Override
+    public void render(SourceModel model) throws MojoExecutionException {
+        if (!THEMES.contains(theme.toLowerCase(Locale.ROOT))) {
+            throw new MojoExecutionException("Unknown theme " + theme + ", expected one of " + THEMES);
+        }
+        final List<SourceClass> classes = metrics.time("parse", () -> batchSize > 0
+                ? model.getClassesInBatches(prefix, tourAnnotation, batchSize,
+                        a -> a.getType().equals(tourAnnotation))
+                : model.getClasses(prefix, tourAnnotation));
+        try (Metrics.Phase phase = metrics.phase("render")) {
+            printAll(classes);
+        }
+        metrics.count("classesParsed", classes.size()).count("tours", tours.size());
+
+        final Template template = Template.of("/strapdown-template.html");
+        final Assets assets = new Assets(assetsDirectory, metrics);
+        try (Metrics.Phase phase = metrics.phase("write")) {
+            outputDirectory.mkdirs();
+            for (String tourName : tours.keySet()) {
+                writeSightSeeingTour(tourName, template, assets);
+            }
+            outputFiles.addAll(assets.getFiles());
+        } catch (IOException e) {
+            throw new MojoExecutionException("Unable to write guided tours", e);
+        }
+    }
+
+    @Override
+    public void fingerprint(SourceModel model, Fingerprint fingerprint) {
+        fingerprint.put("prefix", prefix).put("tourAnnotation", tourAnnotation).put("repositoryLink", repositoryLink)
+                .put("theme", theme).put("assetsDirectory", assetsDirectory.getAbsolutePath())
+                .put("sourceRoot", sourceRoot).putSources(model.getFiles(), batchSize == 0);
+    }
+
+    @Override
+    public List<File> getOutputFiles() {
+        return outputFiles;
+    }
+
+    @Override
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    private void writeSightSeeingTour(String tourName, final Template template, Assets assets) throws IOException {
+        final Tour tour = tours.get(tourName);
+        final File file = new File(outputDirectory, tourName.replaceAll(" ", "_") + ".html");
+        final String themeLink = assets.link("themes/" + theme.toLowerCase(Locale.ROOT) + ".min.css", file);
+        final String strapdownLink = assets.link("strapdown.css", file);
+        final String responsiveLink = assets.link("themes/bootstrap-responsive.min.css", file);
+        template.write(file, text(tourName), text(theme), out -> {
+            final PrintWriter writer = new PrintWriter(out);
+            int count = 1;
+            for (String step : tour.sites.values()) {
+                writer.println(SEP);
+                writer.println("## " + count++ + ". " + step);
+            }
+            writer.flush();
+        }, text(themeLink), text(strapdownLink), text(responsiveLink), text(assets.link("strapdown.js", file)));
+        outputFiles.add(file);
+        metrics.count("steps", tour.sites.size()).countWritten(file);
+    }
+
+    private void printAll(List<SourceClass> classes) {
+        for (SourceClass c : classes) {
+            if (!c.getPackageName().startsWith(prefix)) {
+                continue;
+            }
+            process(c);
+        }
+
+    }
+
+    private TourStep getQuickDevTourStep(List<SourceClass.Annotation> annotations) {
+        for (SourceClass.Annotation annotation : annotations) {
+            if (annotation.getType().equals(tourAnnotation)) {
+                final String tourName = annotation.getNamedParameter("name");
+                final String step = annotation.getNamedParameter("rank");
+                final String desc = annotation.getNamedParameter("description");
+                return new TourStep(tourName.replaceAll("\"", ""), desc.replaceAll("\"", ""), Integer.valueOf(step));
+            }
+        }
+        return null;
+    }
+
+    protected String title(final String title) {
+        return "\n### " + title;
+    }
+
+    protected String listItem(final String bullet) {
+        return "- " + bullet;
+    }
+
+    protected String link(final String name, String url) {
+        return "[" + name + "](" + url + ")";
+    }
+
+    protected String linkSrcJava(final String name, String path, int lineNumber) {
+        return link(name, repositoryLink + "/" + path + "#L" + lineNumber);
+    }
+
+    /**
+     * @return the path of the source file of the class in the repository
+     */
+    protected String sourcePath(SourceClass c) {
+        if (sourceRoot == null) {
+            return "src/main/java/" + c.getFullyQualifiedName().replace('.', '/') + ".java";
+        }
+        return sourceRoot.getAbsoluteFile().toURI().relativize(c.getSourceFile().getFile().getAbsoluteFile().toURI())
+                .getPath();
+    }
+
+    protected void process(SourceClass c) {
+        final String comment = blockQuote(c.getComment());
+        final String path = sourcePath(c);
+        addTourStep(getQuickDevTourStep(c.getAnnotations()), c.getName(), path, comment, c.getLineNumber());
+
+        if (!c.isEnum() && !c.isInterface()) {
+            for (SourceClass.Method m : c.getMethods()) {
+                final String name = m.getCallSignature();
+                final String codeBlock = code(m.getCodeBlock());
+                final int lineNumber = m.getLineNumber();
+                final TourStep step = getQuickDevTourStep(m.getAnnotations());
+                addTourStep(step, name, path, codeBlock, lineNumber);
+
+            }
+        }
+    }
+
+    private String code(String codeBlock) {
+        return "\n```\n" + codeBlock + "\n```";
+    }
+
+    private String blockQuote(String quote) {
+        return quote == null ? "" : "> " + quote.replaceAll("\n", "\n> ");
+    }
+
+    private void addTourStep(final TourStep step, final String name, final String path, final String comment,
+                             final int lineNumber) {
+        if (step != null) {
+            final StringBuilder content = new StringBuilder();
+            // content.append(name);
+            content.append(linkSrcJava(name, path, lineNumber));
+            if (step.description() != null) {
+                content.append(SEP);
+                content.append("*" + step.description().trim() + "*");
+            }
+            if (comment != null) {
+                content.append(SEP);
+                content.append(comment);
+            }
+            content.append(SEP);
+
+            getTourNamed(step.name()).put(step.step(), content.toString());
+        }
+    }
+
+    private Tour getTourNamed(String name) {
+        Tour tour = tours.get(name);
+        if (tour == null) {
+            tour = new Tour();
+            tours.put(name, tour);
+        }
+        return tour;
+    }
+}
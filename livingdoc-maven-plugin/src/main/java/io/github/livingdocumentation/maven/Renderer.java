@@ -0,0 +1,38 @@
+package io.github.livingdocumentation.maven;
+
+import io.github.livingdocumentation.maven.commons.Fingerprint;
+import io.github.livingdocumentation.maven.commons.Metrics;
+import io.github.livingdocumentation.maven.commons.SourceModel;
+import org.apache.maven.plugin.MojoExecutionException;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Generates one kind of living document out of the shared source model.
+ */
+public interface Renderer {
+
+    /**
+     * @return the name of the goal this renderer backs, used in logs
+     */
+    String getName();
+
+    void render(SourceModel model) throws MojoExecutionException;
+
+    /**
+     * Puts everything the document is generated from, besides the code of the plugin, into the fingerprint.
+     */
+    void fingerprint(SourceModel model, Fingerprint fingerprint) throws IOException;
+
+    /**
+     * @return the files written by the last rendering
+     */
+    List<File> getOutputFiles();
+
+    /**
+     * @return the phase timings and the work counters of the renderings
+     */
+    Metrics getMetrics();
+}
@@ -0,0 +1,96 @@
+package io.github.livingdocumentation.maven;
+
+import io.github.livingdocumentation.maven.commons.Fingerprint;
+import io.github.livingdocumentation.maven.commons.Metrics;
+import io.github.livingdocumentation.maven.commons.SourceModel;
+import io.github.livingdocumentation.maven.commons.SourceStamps;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.Log;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Skips the rendering when the fingerprint of the inputs is the one saved by the previous rendering and
+ * its output files still exist. Only the source files whose size or modification time changed are read.
+ */
+public class UpToDateRenderer implements Renderer {
+
+    private final Renderer renderer;
+    private final File fingerprintFile;
+    private final File stampsFile;
+    private final Log log;
+
+    public UpToDateRenderer(Renderer renderer, File cacheDirectory, Log log) {
+        this.renderer = renderer;
+        this.fingerprintFile = new File(cacheDirectory, renderer.getName() + ".fingerprint");
+        this.stampsFile = new File(cacheDirectory, renderer.getName() + ".stamps");
+        this.log = log;
+    }
+
+    /**
+     * @return the renderer itself when forced, else the renderer wrapped in an up to date check
+     */
+    public static Renderer of(Renderer renderer, File cacheDirectory, boolean force, Log log) {
+        return force ? renderer : new UpToDateRenderer(renderer, cacheDirectory, log);
+    }
+
+    @Override
+    public String getName() {
+        return renderer.getName();
+    }
+
+    @Override
+    public void render(SourceModel model) throws MojoExecutionException {
+        final String hash;
+        try (Metrics.Phase phase = getMetrics().phase("fingerprint")) {
+            final SourceStamps stamps = loadStamps();
+            final Fingerprint fingerprint = new Fingerprint(stamps).putCodeOf(Renderer.class);
+            fingerprint(model, fingerprint);
+            hash = fingerprint.hash();
+            if (stamps.isChanged()) {
+                stamps.save(stampsFile);
+            }
+        } catch (IOException e) {
+            log.warn("Unable to fingerprint the inputs of the " + getName() + ": " + e.getMessage());
+            renderer.render(model);
+            return;
+        }
+        if (Fingerprint.isUpToDate(fingerprintFile, hash)) {
+            log.info("The " + getName() + " is up to date");
+            getMetrics().count("upToDate", 1);
+            return;
+        }
+        renderer.render(model);
+        try {
+            Fingerprint.save(fingerprintFile, hash, getOutputFiles());
+        } catch (IOException e) {
+            log.warn("Unable to save the fingerprint " + fingerprintFile + ": " + e.getMessage());
+        }
+    }
+
+    private SourceStamps loadStamps() {
+        try {
+            return SourceStamps.load(stampsFile);
+        } catch (IOException e) {
+            log.warn("Ignoring the source stamps " + stampsFile + ": " + e.getMessage());
+            return new SourceStamps();
+        }
+    }
+
+    @Override
+    public void fingerprint(SourceModel model, Fingerprint fingerprint) throws IOException {
+        renderer.fingerprint(model, fingerprint);
+    }
+
+    @Override
+    public List<File> getOutputFiles() {
+        return renderer.getOutputFiles();
+    }
+
+    @Override
+    public Metrics getMetrics() {
+        return renderer.getMetrics();
+    }
+}
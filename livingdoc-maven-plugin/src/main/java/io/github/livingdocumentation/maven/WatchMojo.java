@@ -0,0 +1,114 @@
+package io.github.livingdocumentation.maven;
+
+import io.github.livingdocumentation.maven.commons.PreviewServer;
+import io.github.livingdocumentation.maven.commons.SharedAsciidoctor;
+import io.github.livingdocumentation.maven.commons.SourceModel;
+import io.github.livingdocumentation.maven.commons.SourceWatcher;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.plugins.annotations.ResolutionScope;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Generates every living document, like the all goal, then keeps generating the documents affected by each change
+ * of the sources or of the compiled classes, and serves them on localhost with live reload. Runs until the build
+ * is stopped.
+ */
+@Mojo(name = "watch", requiresDependencyResolution = ResolutionScope.COMPILE_PLUS_RUNTIME, threadSafe = true)
+public class WatchMojo extends AllMojo {
+
+    /**
+     * Port of the preview server, on localhost
+     */
+    @Parameter(property = "livingdoc.watch.port", defaultValue = "8787")
+    private int port;
+
+    /**
+     * Milliseconds without any change before the documents are generated again
+     */
+    @Parameter(property = "livingdoc.watch.debounce", defaultValue = "100")
+    private long debounce;
+
+    @Override
+    public void execute() throws MojoExecutionException {
+        final List<File> classRoots = getClassRoots();
+        final List<File> roots = new ArrayList<>();
+        sources.forEach(source -> roots.add(new File(source)));
+        roots.addAll(classRoots);
+
+        try (SourceWatcher watcher = new SourceWatcher(roots, getLog());
+             PreviewServer server = PreviewServer.start(outputDirectory, port)) {
+            final List<Renderer> renderers = createRenderers(true);
+            render(renderers, scanSources());
+            server.publish(outputFiles(renderers));
+            getLog().info("Serving the documents on http://localhost:" + server.getPort() + "/, watching "
+                    + roots.stream().filter(File::isDirectory).count() + " directories");
+
+            while (true) {
+                final Set<Path> changes = watcher.take(debounce);
+                final long start = System.nanoTime();
+                final boolean classesChanged = changes.stream().anyMatch(path -> isUnder(path, classRoots));
+                final boolean sourcesChanged = changes.stream().anyMatch(path -> !isUnder(path, classRoots));
+                // a renderer renders once, and the renderers of the documents not affected are left out
+                final List<Renderer> affected = createRenderers(false).stream()
+                        .filter(r -> r instanceof DiagramRenderer ? classesChanged : sourcesChanged)
+                        .collect(Collectors.toList());
+                final SourceModel model = sourcesChanged ? scanSources() : null;
+                try {
+                    render(affected, model);
+                } catch (MojoExecutionException e) {
+                    // a broken source or class is fixed by a later change
+                    getLog().warn(e.getMessage(), e.getCause());
+                    continue;
+                }
+                if (!server.publish(outputFiles(affected))) {
+                    getLog().info(String.format("%d changes, no document changed", changes.size()));
+                    continue;
+                }
+                getLog().info(String.format("%d changes, %s regenerated in %d ms", changes.size(),
+                        affected.stream().map(Renderer::getName).collect(Collectors.joining(", ")),
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)));
+            }
+        } catch (IOException e) {
+            throw new MojoExecutionException("Unable to watch the sources or to serve the documents", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            SharedAsciidoctor.releaseAtEndOf(session);
+        }
+    }
+
+    /**
+     * @return the directories of the classes of the diagram
+     */
+    private List<File> getClassRoots() {
+        final List<File> classRoots = new ArrayList<>();
+        classRoots.add(new File(project.getBuild().getOutputDirectory()));
+        for (File root : extraClassRoots) {
+            if (root.isDirectory()) {
+                classRoots.add(root);
+            }
+        }
+        return classRoots;
+    }
+
+    private static boolean isUnder(Path path, List<File> directories) {
+        return directories.stream().anyMatch(directory -> path.startsWith(directory.getAbsoluteFile().toPath()));
+    }
+
+    private static List<File> outputFiles(List<Renderer> renderers) {
+        return renderers.stream()
+                .flatMap(renderer -> renderer.getOutputFiles().stream())
+                .filter(File::isFile)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,58 @@
+package io.github.livingdocumentation.maven;
+
+import io.github.livingdocumentation.maven.commons.SourceModel;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+import java.io.File;
+
+/**
+ * Single word cloud of the sources of every module of the reactor.
+ */
+@Mojo(name = "wordcloud-aggregate", aggregator = true, threadSafe = true)
+public class WordCloudAggregateMojo extends AbstractAggregateMojo {
+
+    private static final String[] DEFAULT_EXCLUDES = new String[] { "**/package-info.java" };
+
+    /**
+     * List of files to include. Specified as fileset patterns which are relative to the source directories.
+     */
+    @Parameter
+    private String[] includes = SourceModel.JAVA_FILES;
+
+    /**
+     * List of files to exclude. Specified as fileset patterns which are relative to the source directories.
+     */
+    @Parameter
+    private String[] excludes = DEFAULT_EXCLUDES;
+
+    /**
+     * Count the words of the files in parallel on the fork-join pool
+     */
+    @Parameter(property = "livingdoc.parallel", defaultValue = "false")
+    private boolean parallel;
+
+    /**
+     * Lay the words out at build time into a static SVG, so that the page shows without d3
+     */
+    @Parameter(property = "livingdoc.wordcloud.svg", defaultValue = "false")
+    private boolean svg;
+
+    /**
+     * Keep the word counts of each file between two builds and only count the words of the changed files
+     */
+    @Parameter(property = "livingdoc.incremental", defaultValue = "true")
+    private boolean incremental;
+
+    @Override
+    public void execute() throws MojoExecutionException {
+        final String[] includes = this.includes != null && this.includes.length > 0 ? this.includes
+                : SourceModel.JAVA_FILES;
+        final File indexFile = incremental
+                ? new File(getAggregateCacheDirectory(), WordCloudRenderer.INDEX_FILENAME) : null;
+        render(new WordCloudRenderer.Builder(getLog(), outputDirectory).includes(includes).excludes(excludes)
+                        .parallel(parallel).indexFile(indexFile).svg(svg).assetsDirectory(assetsDirectory).build(),
+                scanSources(includes, excludes));
+    }
+}
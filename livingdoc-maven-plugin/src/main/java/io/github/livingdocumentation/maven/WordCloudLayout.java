@@ -0,0 +1,247 @@
+package io.github.livingdocumentation.maven;
+
+import io.github.livingdocumentation.maven.commons.TermCounts;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.*;
+
+/**
+ * Places the words of the cloud on the server side, so that the page is a static SVG. Like the d3 layout of
+ * the browser page, the biggest words are placed first, each one along an archimedean spiral from the
+ * center until it collides with no word already placed. Placed words are kept in a grid of cells, so that a
+ * collision check only looks at the words of the cells the candidate covers. The text widths are estimated
+ * from a fixed table of character widths rather than from the fonts of the machine: the layout is the same
+ * on every run and every machine.
+ */
+public class WordCloudLayout {
+
+	// d3.scale.category20
+	private static final String[] COLORS = { "#1f77b4", "#aec7e8", "#ff7f0e", "#ffbb78", "#2ca02c", "#98df8a",
+			"#d62728", "#ff9896", "#9467bd", "#c5b0d5", "#8c564b", "#c49c94", "#e377c2", "#f7b6d2", "#7f7f7f",
+			"#c7c7c7", "#bcbd22", "#dbdb8d", "#17becf", "#9edae5" };
+
+	private static final int PADDING = 2;
+	private static final int CELL_SIZE = 16;
+	private static final double MIN_FONT_SIZE = 1;
+
+	/**
+	 * A word placed in the cloud, (x, y) being the center of its box
+	 */
+	public static final class Word {
+		private final String text;
+		private final double fontSize;
+		private final double x;
+		private final double y;
+		private final double width;
+		private final double height;
+
+		private Word(String text, double fontSize, double x, double y, double width, double height) {
+			this.text = text;
+			this.fontSize = fontSize;
+			this.x = x;
+			this.y = y;
+			this.width = width;
+			this.height = height;
+		}
+
+		public String getText() {
+			return text;
+		}
+
+		public double getFontSize() {
+			return fontSize;
+		}
+
+		public double getX() {
+			return x;
+		}
+
+		public double getY() {
+			return y;
+		}
+
+		public double getWidth() {
+			return width;
+		}
+
+		public double getHeight() {
+			return height;
+		}
+
+		private boolean overlaps(double left, double top, double right, double bottom) {
+			return left < x + width / 2 && right > x - width / 2 && top < y + height / 2 && bottom > y - height / 2;
+		}
+	}
+
+	private final int width;
+	private final int height;
+
+	public WordCloudLayout(int width, int height) {
+		this.width = width;
+		this.height = height;
+	}
+
+	/**
+	 * @param scaling the factor from counts to sizes, the font size being twice the size as in the browser page
+	 * @return the words that could be placed, the biggest first
+	 */
+	public List<Word> layout(TermCounts bag, double scaling) {
+		final List<Map.Entry<String, Integer>> terms = new ArrayList<>(bag.asMap().entrySet());
+		terms.sort(Map.Entry.<String, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()));
+
+		final Grid grid = new Grid();
+		final List<Word> words = new ArrayList<>();
+		for (Map.Entry<String, Integer> term : terms) {
+			final double fontSize = 2 * scaling * term.getValue();
+			if (fontSize < MIN_FONT_SIZE) {
+				break;
+			}
+			final Word word = place(term.getKey(), fontSize, grid);
+			if (word != null) {
+				grid.add(word);
+				words.add(word);
+			}
+		}
+		return words;
+	}
+
+	private Word place(String text, double fontSize, Grid grid) {
+		final double boxWidth = textWidth(text) * fontSize + 2 * PADDING;
+		final double boxHeight = fontSize + 2 * PADDING;
+		if (boxWidth > width || boxHeight > height) {
+			return null;
+		}
+		final double ratio = (double) width / height;
+		final double maxRadius = Math.hypot(width, height) / 2;
+		// same spiral as d3.layout.cloud
+		for (int step = 0; ; step++) {
+			final double t = step * .1;
+			if (t * Math.min(ratio, 1) > maxRadius) {
+				// the spiral left the cloud for good
+				return null;
+			}
+			final double x = width / 2. + ratio * t * Math.cos(t);
+			final double y = height / 2. + t * Math.sin(t);
+			final double left = x - boxWidth / 2;
+			final double top = y - boxHeight / 2;
+			if (left < 0 || top < 0 || left + boxWidth > width || top + boxHeight > height) {
+				continue;
+			}
+			if (!grid.collides(left, top, left + boxWidth, top + boxHeight)) {
+				return new Word(text, fontSize, x, y, boxWidth, boxHeight);
+			}
+		}
+	}
+
+	/**
+	 * @return the estimated width of the text, in font sizes
+	 */
+	static double textWidth(String text) {
+		double width = 0;
+		for (int i = 0; i < text.length(); i++) {
+			width += charWidth(text.charAt(i));
+		}
+		return width;
+	}
+
+	// widths of a condensed font like Impact, in font sizes
+	private static double charWidth(char c) {
+		switch (c) {
+			case 'i': case 'l': case 'j': case '\'': case '.': case ',':
+				return .25;
+			case 'f': case 't': case 'r': case 'I':
+				return .35;
+			case 'm': case 'w':
+				return .8;
+			case 'M': case 'W':
+				return .9;
+			default:
+				return Character.isUpperCase(c) ? .6 : .5;
+		}
+	}
+
+	/**
+	 * Index of the placed words by the cells of a uniform grid their box covers
+	 */
+	private final class Grid {
+		private final int columns = width / CELL_SIZE + 1;
+		private final int rows = height / CELL_SIZE + 1;
+		private final List<List<Word>> cells = new ArrayList<>(Collections.nCopies(columns * rows, null));
+
+		void add(Word word) {
+			forEachCell(word.x - word.width / 2, word.y - word.height / 2, word.x + word.width / 2,
+					word.y + word.height / 2, cell -> {
+						List<Word> words = cells.get(cell);
+						if (words == null) {
+							words = new ArrayList<>();
+							cells.set(cell, words);
+						}
+						words.add(word);
+						return false;
+					});
+		}
+
+		boolean collides(double left, double top, double right, double bottom) {
+			return forEachCell(left, top, right, bottom, cell -> {
+				final List<Word> words = cells.get(cell);
+				if (words != null) {
+					for (Word word : words) {
+						if (word.overlaps(left, top, right, bottom)) {
+							return true;
+						}
+					}
+				}
+				return false;
+			});
+		}
+
+		/**
+		 * @return true as soon as the visitor returns true for a cell
+		 */
+		private boolean forEachCell(double left, double top, double right, double bottom, CellVisitor visitor) {
+			final int firstColumn = clamp((int) (left / CELL_SIZE), columns);
+			final int lastColumn = clamp((int) (right / CELL_SIZE), columns);
+			final int firstRow = clamp((int) (top / CELL_SIZE), rows);
+			final int lastRow = clamp((int) (bottom / CELL_SIZE), rows);
+			for (int row = firstRow; row <= lastRow; row++) {
+				for (int column = firstColumn; column <= lastColumn; column++) {
+					if (visitor.visit(row * columns + column)) {
+						return true;
+					}
+				}
+			}
+			return false;
+		}
+
+		private int clamp(int index, int count) {
+			return Math.max(0, Math.min(count - 1, index));
+		}
+	}
+
+	private interface CellVisitor {
+		boolean visit(int cell);
+	}
+
+	/**
+	 * Writes the words as an SVG image, colored like the browser page.
+	 */
+	public void writeSvg(List<Word> words, Writer out) throws IOException {
+		out.write("<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"" + width + "\" height=\"" + height
+				+ "\" viewBox=\"0 0 " + width + " " + height + "\">\n");
+		out.write("<g font-family=\"Impact\" text-anchor=\"middle\">\n");
+		for (int i = 0; i < words.size(); i++) {
+			final Word word = words.get(i);
+			// the baseline is about a third of the font size below the center of the box
+			out.write(String.format(Locale.ROOT, "<text x=\"%.1f\" y=\"%.1f\" font-size=\"%.1f\" fill=\"%s\">",
+					word.x, word.y + word.fontSize * .35, word.fontSize, COLORS[i % COLORS.length]));
+			out.write(escape(word.text));
+			out.write("</text>\n");
+		}
+		out.write("</g>\n</svg>");
+	}
+
+	private static String escape(String text) {
+		return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+	}
+}
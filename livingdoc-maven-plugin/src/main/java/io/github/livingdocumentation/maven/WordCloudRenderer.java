@@ -0,0 +1,497 @@
+package io.github.livingdocumentation.maven;
+
+import io.github.livingdocumentation.maven.commons.Assets;
+import io.github.livingdocumentation.maven.commons.Fingerprint;
+import io.github.livingdocumentation.maven.commons.Metrics;
+import io.github.livingdocumentation.maven.commons.SourceFile;
+import io.github.livingdocumentation.maven.commons.SourceModel;
+import io.github.livingdocumentation.maven.commons.Template;
+import io.github.livingdocumentation.maven.commons.TermCounts;
+import io.github.livingdocumentation.maven.commons.TermIndex;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.shared.utils.io.SelectorUtils;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.Collectors;
+
+import static io.github.livingdocumentation.maven.commons.Template.text;
+
+/**
+ * Cloud of the most frequent words found in the source files, keywords and stop words aside.
+ */
+public class WordCloudRenderer implements Renderer {
+
+	private static final String OUTPUT_FILENAME = "wordcloud";
+	public static final String INDEX_FILENAME = "wordcloud.idx";
+	// same size as the svg of the browser page
+	private static final int SVG_SIZE = 600;
+
+	// keywords to be ignored
+	private static final String[] KEYWORDS = { "abstract", "continue", "for", "new", "switch", "assert", "default",
+			"if", "package", "synchronized", "boolean", "do", "goto", "private", "this", "break", "double",
+			"implements", "protected", "throw", "byte", "else", "import", "public", "throws", "case", "enum",
+			"instanceof", "return", "transient", "catch", "extends", "int", "", "short", "try", "char", "final",
+			"interface", "static", "void", "class", "finally", "long", "strictfp", "volatile", "const", "float",
+			"native", "super", "while" };
+
+	// lower-case words to be ignored
+	private static final String[] STOPWORDS = { "id", "the", "it","is", "to", "with", "what's", "by", "or", "and", "both", "be", "of",
+			"in", "obj", "string", "hashcode", "equals", "other", "tostring", "false", "true", "object", "annotations" };
+	private static final TermCounts ignore = initialize();
+
+	private static final boolean[] delimiters = delimiters(";:.,?!<><=+-^&|*/\"\t\r\n {}[]()");
+
+	private final static TermCounts initialize() {
+		final TermCounts ignore = new TermCounts(KEYWORDS.length + STOPWORDS.length);
+		Arrays.stream(STOPWORDS).forEach(word -> ignore.add(word, 1));
+		Arrays.stream(KEYWORDS).forEach(word -> ignore.add(word, 1));
+		return ignore;
+	}
+
+	private static boolean[] delimiters(String chars) {
+		final boolean[] delimiters = new boolean[128];
+		for (char c : chars.toCharArray()) {
+			delimiters[c] = true;
+		}
+		return delimiters;
+	}
+
+	private final Log log;
+	private final File outputDirectory;
+	private final String[] includes;
+	private final String[] excludes;
+	private final boolean parallel;
+	private final File indexFile;
+	private final boolean svg;
+	private final File assetsDirectory;
+	private final List<File> assetFiles = new ArrayList<>();
+	private final Metrics metrics = new Metrics("wordcloud");
+
+	private TermCounts bag = new TermCounts();
+	private int max = 0;
+
+	/**
+	 * Options of the word cloud, every Java file by default
+	 */
+	public static final class Builder {
+		private final Log log;
+		private final File outputDirectory;
+		private String[] includes = SourceModel.JAVA_FILES;
+		private String[] excludes = new String[0];
+		private boolean parallel;
+		private File indexFile;
+		private boolean svg;
+		private File assetsDirectory;
+
+		public Builder(Log log, File outputDirectory) {
+			this.log = log;
+			this.outputDirectory = outputDirectory;
+		}
+
+		public Builder includes(String[] includes) {
+			this.includes = includes;
+			return this;
+		}
+
+		public Builder excludes(String[] excludes) {
+			this.excludes = excludes;
+			return this;
+		}
+
+		public Builder parallel(boolean parallel) {
+			this.parallel = parallel;
+			return this;
+		}
+
+		/**
+		 * @param indexFile file keeping the term counts of each file between two runs, so that only the
+		 * changed files are tokenized again; {@code null} to tokenize every file
+		 */
+		public Builder indexFile(File indexFile) {
+			this.indexFile = indexFile;
+			return this;
+		}
+
+		/**
+		 * @param svg whether to lay the words out at build time into a static SVG, instead of in the browser with d3
+		 */
+		public Builder svg(boolean svg) {
+			this.svg = svg;
+			return this;
+		}
+
+		/**
+		 * @param assetsDirectory directory of the scripts of the page, shared by the pages of several modules;
+		 * {@code null} for the <code>lib</code> directory of the output directory
+		 */
+		public Builder assetsDirectory(File assetsDirectory) {
+			this.assetsDirectory = assetsDirectory;
+			return this;
+		}
+
+		public WordCloudRenderer build() {
+			return new WordCloudRenderer(this);
+		}
+	}
+
+	private WordCloudRenderer(Builder builder) {
+		this.log = builder.log;
+		this.outputDirectory = builder.outputDirectory;
+		this.includes = normalize(builder.includes);
+		this.excludes = normalize(builder.excludes);
+		this.parallel = builder.parallel;
+		this.indexFile = builder.indexFile;
+		this.svg = builder.svg;
+		this.assetsDirectory = builder.assetsDirectory != null ? builder.assetsDirectory
+				: new File(outputDirectory, "lib");
+	}
+
+	@Override
+	public String getName() {
+		return "wordcloud";
+	}
+
+	public void scan(final List<SourceFile> files) {
+		final List<SourceFile> included = included(files);
+		if (indexFile != null) {
+			bag = scanIncrementally(included);
+		} else if (parallel) {
+			bag = ForkJoinPool.commonPool().invoke(new CountTask(included, 0, included.size()));
+		} else {
+			bag = count(included, 0, included.size());
+		}
+		max = bag.max();
+	}
+
+	/**
+	 * Only tokenizes the files whose size or modification time changed since the index was saved, and
+	 * whose content hash changed too, then updates the total with their differences.
+	 */
+	private TermCounts scanIncrementally(List<SourceFile> files) {
+		final TermIndex index = loadIndex();
+		final Set<String> paths = new HashSet<>();
+		final List<SourceFile> modified = new ArrayList<>();
+		for (SourceFile f : files) {
+			final File file = f.getFile();
+			final String path = file.getAbsolutePath();
+			paths.add(path);
+			final TermIndex.Entry entry = index.get(path);
+			if (entry == null || entry.getSize() != file.length() || entry.getLastModified() != file.lastModified()) {
+				modified.add(f);
+			}
+		}
+		final TermIndex.Entry[] updates = new TermIndex.Entry[modified.size()];
+		if (parallel) {
+			ForkJoinPool.commonPool().invoke(new IndexTask(modified, index, updates, 0, modified.size()));
+		} else {
+			index(modified, index, updates, 0, modified.size());
+		}
+		for (int i = 0; i < updates.length; i++) {
+			index.put(modified.get(i).getFile().getAbsolutePath(), updates[i]);
+		}
+		final int removed = index.size() - paths.size();
+		index.retainAll(paths);
+		if (log.isDebugEnabled()) {
+			log.debug(String.format("%d files modified, %d removed, %d unchanged", updates.length, removed,
+					files.size() - updates.length));
+		}
+		try {
+			index.save(indexFile);
+		} catch (IOException e) {
+			log.warn("Unable to save the word index " + indexFile + ": " + e.getMessage());
+		}
+		return index.getTotal();
+	}
+
+	private TermIndex loadIndex() {
+		try {
+			return TermIndex.load(indexFile);
+		} catch (IOException e) {
+			log.warn("Ignoring the word index " + indexFile + ": " + e.getMessage());
+			return new TermIndex();
+		}
+	}
+
+	/**
+	 * Computes the entries of the files from one index to another, in the same positions of the updates
+	 */
+	private void index(List<SourceFile> files, TermIndex index, TermIndex.Entry[] updates, int from, int to) {
+		for (int i = from; i < to; i++) {
+			final SourceFile f = files.get(i);
+			updates[i] = index(f, index.get(f.getFile().getAbsolutePath()));
+		}
+	}
+
+	private TermIndex.Entry index(SourceFile f, TermIndex.Entry previous) {
+		final File file = f.getFile();
+		final long size = file.length();
+		final long lastModified = file.lastModified();
+		// already hashed by the fingerprint of the sources, when the word cloud is checked for changes
+		final long hash = f.getHash(true);
+		final String content = f.getContent();
+		if (previous != null && previous.getHash() == hash) {
+			// only touched
+			return new TermIndex.Entry(size, lastModified, hash, previous.getCounts());
+		}
+		final TermCounts counts = new TermCounts();
+		filter(content.toCharArray(), content.length(), counts);
+		return new TermIndex.Entry(size, lastModified, hash, counts);
+	}
+
+	private TermCounts count(List<SourceFile> files, int from, int to) {
+		final TermCounts counts = new TermCounts();
+		char[] buffer = new char[0];
+		for (SourceFile f : files.subList(from, to)) {
+			if (log.isDebugEnabled()) {
+				log.debug(String.format("file: %s", f));
+			}
+			final String content = f.getContent();
+			if (buffer.length < content.length()) {
+				buffer = new char[content.length()];
+			}
+			content.getChars(0, content.length(), buffer, 0);
+			filter(buffer, content.length(), counts);
+		}
+		return counts;
+	}
+
+	/**
+	 * Counts a slice of the files, splitting it across the fork-join pool. Each leaf counts into its own
+	 * table, the tables are merged on the way back.
+	 */
+	private class CountTask extends RecursiveTask<TermCounts> {
+
+		private static final int FILES_PER_TASK = 16;
+
+		private final List<SourceFile> files;
+		private final int from;
+		private final int to;
+
+		CountTask(List<SourceFile> files, int from, int to) {
+			this.files = files;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected TermCounts compute() {
+			if (to - from <= FILES_PER_TASK) {
+				return count(files, from, to);
+			}
+			final int middle = (from + to) >>> 1;
+			final CountTask left = new CountTask(files, from, middle);
+			left.fork();
+			final TermCounts right = new CountTask(files, middle, to).compute();
+			return merge(left.join(), right);
+		}
+
+		private TermCounts merge(TermCounts a, TermCounts b) {
+			final TermCounts into = a.size() >= b.size() ? a : b;
+			into.addAll(into == a ? b : a);
+			return into;
+		}
+	}
+
+	/**
+	 * Tokenizes the modified files of an incremental scan on the fork-join pool, split like the full scan
+	 */
+	private class IndexTask extends RecursiveAction {
+
+		private final List<SourceFile> files;
+		private final TermIndex index;
+		private final TermIndex.Entry[] updates;
+		private final int from;
+		private final int to;
+
+		IndexTask(List<SourceFile> files, TermIndex index, TermIndex.Entry[] updates, int from, int to) {
+			this.files = files;
+			this.index = index;
+			this.updates = updates;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= CountTask.FILES_PER_TASK) {
+				index(files, index, updates, from, to);
+				return;
+			}
+			final int middle = (from + to) >>> 1;
+			invokeAll(new IndexTask(files, index, updates, from, middle),
+					new IndexTask(files, index, updates, middle, to));
+		}
+	}
+
+	public TermCounts getBag() {
+		return bag;
+	}
+
+	public int getMax() {
+		return max;
+	}
+
+	private List<SourceFile> included(List<SourceFile> files) {
+		return files.stream().filter(this::isIncluded).collect(Collectors.toList());
+	}
+
+	private boolean isIncluded(SourceFile file) {
+		final String path = file.getRelativePath();
+		return Arrays.stream(includes).anyMatch(p -> SelectorUtils.matchPath(p, path))
+				&& Arrays.stream(excludes).noneMatch(p -> SelectorUtils.matchPath(p, path));
+	}
+
+	private static String[] normalize(String[] patterns) {
+		return Arrays.stream(patterns)
+				.map(p -> p.replace('/', File.separatorChar).replace('\\', File.separatorChar))
+				.map(p -> p.endsWith(File.separator) ? p + "**" : p)
+				.toArray(String[]::new);
+	}
+
+	/**
+	 * Counts the meaningful words of the chars: tokens are lower-cased in place and only new words are
+	 * turned into strings.
+	 */
+	public static void filter(final char[] chars, final int length, final TermCounts counts) {
+		int i = 0;
+		while (i < length) {
+			while (i < length && isDelimiter(chars[i])) {
+				i++;
+			}
+			int start = i;
+			while (i < length && !isDelimiter(chars[i])) {
+				i++;
+			}
+			int end = i;
+			// same as String.trim()
+			while (start < end && chars[start] <= ' ') {
+				start++;
+			}
+			while (end > start && chars[end - 1] <= ' ') {
+				end--;
+			}
+			final int tokenLength = end - start;
+			if (tokenLength <= 1 || chars[start] == '@') {
+				continue;
+			}
+			int hash = 0;
+			for (int k = start; k < end; k++) {
+				final char c = Character.toLowerCase(chars[k]);
+				chars[k] = c;
+				hash = 31 * hash + c;
+			}
+			if (Character.isDigit(chars[start]) || ignore.contains(chars, start, tokenLength, hash)) {
+				continue;
+			}
+			counts.add(chars, start, tokenLength, hash);
+		}
+	}
+
+	private static boolean isDelimiter(char c) {
+		return c < 128 && delimiters[c];
+	}
+
+	@Override
+	public void render(SourceModel model) throws MojoExecutionException {
+		try (Metrics.Phase phase = metrics.phase("tokenize")) {
+			scan(model.getFiles());
+		}
+
+		final TermCounts bag = getBag();
+		final int max = getMax();
+		final double scaling = 50. / max;
+		metrics.count("tokens", bag.total()).count("terms", bag.size());
+
+		outputDirectory.mkdirs();
+		try {
+			if (svg) {
+				final WordCloudLayout layout = new WordCloudLayout(SVG_SIZE, SVG_SIZE);
+				final List<WordCloudLayout.Word> words = metrics.time("layout", () -> layout.layout(bag, scaling));
+				if (log.isDebugEnabled()) {
+					log.debug(String.format("%d words placed out of %d", words.size(), bag.size()));
+				}
+				metrics.count("words", words.size());
+				try (Metrics.Phase phase = metrics.phase("write")) {
+					Template.of("/svg-template.html").write(getOutputFile(), text("Word Cloud"),
+							out -> layout.writeSvg(words, out));
+					Template.parse("{0}").write(getSvgFile(), out -> layout.writeSvg(words, out));
+				}
+			} else {
+				try (Metrics.Phase phase = metrics.phase("write")) {
+					final Assets assets = new Assets(assetsDirectory, metrics);
+					Template.of("/wordcloud-template.html").write(getOutputFile(), text("Word Cloud"),
+							out -> writeJSON(bag, scaling, out), text(assets.link("d3.js", getOutputFile())),
+							text(assets.link("d3.layout.cloud.js", getOutputFile())));
+					assetFiles.addAll(assets.getFiles());
+				}
+			}
+		} catch (IOException e) {
+			throw new MojoExecutionException("Unable to write the word cloud", e);
+		}
+		metrics.countWritten(getPages().toArray(new File[0]));
+	}
+
+	@Override
+	public void fingerprint(SourceModel model, Fingerprint fingerprint) {
+		fingerprint.put("includes", includes).put("excludes", excludes).put("svg", svg)
+				.put("assetsDirectory", assetsDirectory.getAbsolutePath()).putSources(included(model.getFiles()));
+	}
+
+	@Override
+	public List<File> getOutputFiles() {
+		final List<File> files = new ArrayList<>(getPages());
+		files.addAll(assetFiles);
+		return files;
+	}
+
+	@Override
+	public Metrics getMetrics() {
+		return metrics;
+	}
+
+	private List<File> getPages() {
+		return svg ? Arrays.asList(getOutputFile(), getSvgFile()) : Collections.singletonList(getOutputFile());
+	}
+
+	private File getOutputFile() {
+		return new File(outputDirectory, OUTPUT_FILENAME + ".html");
+	}
+
+	private File getSvgFile() {
+		return new File(outputDirectory, OUTPUT_FILENAME + ".svg");
+	}
+
+	public static String toJSON(final TermCounts bag, double scaling) {
+		final StringWriter out = new StringWriter();
+		try {
+			writeJSON(bag, scaling, out);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return out.toString();
+	}
+
+	/**
+	 * Writes the terms and their scaled counts as the JSON objects of the cloud.
+	 */
+	public static void writeJSON(final TermCounts bag, double scaling, final Writer out) throws IOException {
+		try {
+			bag.forEach((term, count) -> {
+				try {
+					out.append("{\"text\": \"").append(term).append("\", \"size\": ")
+							.append(String.valueOf(scaling * count)).append("}, ");
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			});
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+	}
+
+}
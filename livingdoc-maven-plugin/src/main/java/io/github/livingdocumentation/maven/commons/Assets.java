@@ -0,0 +1,225 @@
+package io.github.livingdocumentation.maven.commons;
+
+import com.google.common.hash.Hashing;
+import com.google.common.io.ByteStreams;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Scripts and stylesheets of the shared resources, as linked from the pages: minified, named after the hash
+ * of their content so that they can be cached for ever, and written next to a gzip copy for the servers serving
+ * pre-compressed files. Only the assets a page links are written, and an asset already in the directory is kept,
+ * so that the pages of several modules, or of several goals, share a single copy.
+ */
+public final class Assets {
+
+    private static final String RESOURCES = "/lib/";
+    private static final ConcurrentMap<String, Asset> PROCESSED = new ConcurrentHashMap<>();
+
+    private final File directory;
+    private final Metrics metrics;
+    private final List<File> files = new ArrayList<>();
+
+    private static final class Asset {
+        private final String fileName;
+        private final byte[] content;
+        private final byte[] gzip;
+
+        private Asset(String fileName, byte[] content, byte[] gzip) {
+            this.fileName = fileName;
+            this.content = content;
+            this.gzip = gzip;
+        }
+    }
+
+    /**
+     * @param directory the directory the assets are written into
+     * @param metrics   where the assets written are counted
+     */
+    public Assets(File directory, Metrics metrics) {
+        this.directory = directory;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Writes the asset into the directory, unless it is already there.
+     *
+     * @param name the path of the asset in the shared resources, like <code>d3.js</code>
+     * @param page the page linking the asset
+     * @return the URL of the asset, relative to the page
+     */
+    public String link(String name, File page) throws IOException {
+        final Asset asset;
+        try {
+            asset = PROCESSED.computeIfAbsent(name, Assets::process);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        final File file = new File(directory, asset.fileName);
+        final File gzipFile = new File(directory, asset.fileName + ".gz");
+        if (!files.contains(file)) {
+            if (file.length() != asset.content.length || gzipFile.length() != asset.gzip.length) {
+                // renamed once written, so that a page never links a partly written asset
+                AtomicFiles.write(file, asset.content);
+                AtomicFiles.write(gzipFile, asset.gzip);
+                metrics.count("assetsWritten", 1).countWritten(file, gzipFile);
+            }
+            files.add(file);
+            files.add(gzipFile);
+        }
+        final Path from = page.getAbsoluteFile().getParentFile().toPath().normalize();
+        return from.relativize(file.getAbsoluteFile().toPath().normalize()).toString().replace(File.separatorChar, '/');
+    }
+
+    /**
+     * @return the assets linked so far, with their gzip copies
+     */
+    public List<File> getFiles() {
+        return files;
+    }
+
+    private static Asset process(String name) {
+        final InputStream stream = Assets.class.getResourceAsStream(RESOURCES + name);
+        try {
+            if (stream == null) {
+                throw new FileNotFoundException("No asset lib/" + name + " in the shared resources");
+            }
+            final byte[] source;
+            try (InputStream in = stream) {
+                source = ByteStreams.toByteArray(in);
+            }
+            // latin-1 keeps any byte as is, the minification only looks at ascii characters
+            final String text = new String(source, StandardCharsets.ISO_8859_1);
+            final String minified = name.endsWith(".css") ? minifyCss(text) : minifyJs(text);
+            final byte[] content = minified.getBytes(StandardCharsets.ISO_8859_1);
+            final String hash = Hashing.murmur3_128().hashBytes(content).toString().substring(0, 10);
+            final int extension = name.lastIndexOf('.');
+            return new Asset(name.substring(0, extension) + "." + hash + name.substring(extension), content,
+                    gzip(content));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Removes the indentation, the blank lines and the comments starting a line, license comments excepted.
+     * Lines are kept, so that the semicolons inserted at the end of lines are kept too, and a comment is only
+     * recognized at the start of a line, where it cannot be mistaken for a string or a regular expression.
+     */
+    static String minifyJs(String source) {
+        final StringBuilder out = new StringBuilder(source.length());
+        boolean continued = false;
+        int i = 0;
+        while (i < source.length()) {
+            int end = source.indexOf('\n', i);
+            if (end < 0) {
+                end = source.length();
+            }
+            final String raw = source.substring(i, end);
+            final String line = raw.trim();
+            if (continued) {
+                // the line goes on with a string ended by a backslash, its spaces belong to the string
+                out.append(raw).append('\n');
+            } else if (line.startsWith("/*")) {
+                final int start = source.indexOf("/*", i);
+                final int close = source.indexOf("*/", start + 2);
+                if (close < 0) {
+                    out.append(source.substring(start));
+                    break;
+                }
+                final String comment = source.substring(start, close + 2);
+                if (isLicense(comment)) {
+                    out.append(comment).append('\n');
+                }
+                // the rest of the line closing the comment is a line of its own
+                i = close + 2;
+                continue;
+            } else if (!line.isEmpty() && !line.startsWith("//")) {
+                out.append(line).append('\n');
+            }
+            continued = raw.endsWith("\\") || raw.endsWith("\\\r");
+            i = end + 1;
+        }
+        return out.toString();
+    }
+
+    /**
+     * Removes the comments, license comments excepted, and the spaces around braces, semicolons and commas,
+     * other spaces being shortened to one.
+     */
+    static String minifyCss(String source) {
+        final StringBuilder out = new StringBuilder(source.length());
+        boolean space = false;
+        int i = 0;
+        while (i < source.length()) {
+            final char c = source.charAt(i);
+            if (c == '/' && source.startsWith("/*", i)) {
+                final int close = source.indexOf("*/", i + 2);
+                final int end = close < 0 ? source.length() : close + 2;
+                final String comment = source.substring(i, end);
+                if (isLicense(comment)) {
+                    out.append(comment).append('\n');
+                }
+                i = end;
+                continue;
+            }
+            if (Character.isWhitespace(c)) {
+                space = true;
+                i++;
+                continue;
+            }
+            if (space && out.length() > 0 && !isTight(out.charAt(out.length() - 1)) && !isTight(c)) {
+                out.append(' ');
+            }
+            space = false;
+            if (c == '"' || c == '\'') {
+                int close = i + 1;
+                while (close < source.length() && source.charAt(close) != c) {
+                    close += source.charAt(close) == '\\' ? 2 : 1;
+                }
+                final int end = Math.min(close + 1, source.length());
+                out.append(source, i, end);
+                i = end;
+                continue;
+            }
+            out.append(c);
+            i++;
+        }
+        return out.toString();
+    }
+
+    private static boolean isTight(char c) {
+        return c == '{' || c == '}' || c == ';' || c == ',' || c == '\n';
+    }
+
+    private static boolean isLicense(String comment) {
+        final String lowerCase = comment.toLowerCase(Locale.ROOT);
+        return comment.startsWith("/*!") || lowerCase.contains("license") || lowerCase.contains("copyright");
+    }
+
+    private static byte[] gzip(byte[] content) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(content.length / 3);
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            out.write(content);
+        }
+        return bytes.toByteArray();
+    }
+}
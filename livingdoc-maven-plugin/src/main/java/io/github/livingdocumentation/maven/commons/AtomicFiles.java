@@ -0,0 +1,48 @@
+package io.github.livingdocumentation.maven.commons;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.UUID;
+
+/**
+ * Writes files through a temporary file of the same directory, renamed to the file once complete, so that a
+ * reader, like a module built concurrently or a server serving the documents, never sees a partly written file,
+ * and a failed write leaves the previous file in place.
+ */
+public final class AtomicFiles {
+
+    /**
+     * Writes the content of the file
+     */
+    public interface Content {
+        void writeTo(Path temporary) throws IOException;
+    }
+
+    private AtomicFiles() {
+    }
+
+    public static void write(File file, Content content) throws IOException {
+        final Path target = file.getAbsoluteFile().toPath();
+        final Path directory = Files.createDirectories(target.getParent());
+        // unique, so that two writers of the same file never share a temporary file
+        final Path temporary = directory.resolve(target.getFileName() + "." + UUID.randomUUID() + ".tmp");
+        try {
+            content.writeTo(temporary);
+            try {
+                Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    public static void write(File file, byte[] content) throws IOException {
+        write(file, temporary -> Files.write(temporary, content));
+    }
+}
@@ -0,0 +1,181 @@
+package io.github.livingdocumentation.maven.commons;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads a {@link ClassModel} straight out of the bytes of a class file, without defining the class in a
+ * class loader. Only the constant pool, the interfaces and the field descriptors are decoded; attributes
+ * and methods are skipped.
+ */
+public final class ClassFileParser {
+
+    private static final int MAGIC = 0xCAFEBABE;
+
+    private static final int UTF8 = 1;
+    private static final int INTEGER = 3;
+    private static final int FLOAT = 4;
+    private static final int LONG = 5;
+    private static final int DOUBLE = 6;
+    private static final int CLASS = 7;
+    private static final int STRING = 8;
+    private static final int FIELD_REF = 9;
+    private static final int METHOD_REF = 10;
+    private static final int INTERFACE_METHOD_REF = 11;
+    private static final int NAME_AND_TYPE = 12;
+    private static final int METHOD_HANDLE = 15;
+    private static final int METHOD_TYPE = 16;
+    private static final int DYNAMIC = 17;
+    private static final int INVOKE_DYNAMIC = 18;
+    private static final int MODULE = 19;
+    private static final int PACKAGE = 20;
+
+    private final byte[] bytes;
+    // offset of each constant pool entry, right after its tag
+    private final int[] offsets;
+    private int position;
+
+    private ClassFileParser(byte[] bytes) {
+        this.bytes = bytes;
+        this.position = 8;
+        this.offsets = new int[readUnsignedShort()];
+    }
+
+    /**
+     * @param bytes the content of a class file
+     * @throws IOException if the bytes are not a valid class file
+     */
+    public static ClassModel parse(byte[] bytes) throws IOException {
+        if (bytes.length < 10 || readInt(bytes, 0) != MAGIC) {
+            throw new IOException("Not a class file");
+        }
+        try {
+            return new ClassFileParser(bytes).parse();
+        } catch (ArrayIndexOutOfBoundsException e) {
+            throw new IOException("Truncated class file", e);
+        }
+    }
+
+    private ClassModel parse() throws IOException {
+        readConstantPool();
+        position += 2; // access flags
+        final String name = className(readUnsignedShort());
+        position += 2; // super class
+
+        final int interfaceCount = readUnsignedShort();
+        final List<String> interfaces = new ArrayList<>(interfaceCount);
+        for (int i = 0; i < interfaceCount; i++) {
+            interfaces.add(className(readUnsignedShort()));
+        }
+
+        final int fieldCount = readUnsignedShort();
+        final List<String> fieldTypes = new ArrayList<>(fieldCount);
+        for (int i = 0; i < fieldCount; i++) {
+            position += 4; // access flags, name
+            final String type = typeName(readUnsignedShort());
+            if (type != null) {
+                fieldTypes.add(type);
+            }
+            skipAttributes();
+        }
+        return new ClassModel(name, fieldTypes, interfaces);
+    }
+
+    private void readConstantPool() throws IOException {
+        for (int i = 1; i < offsets.length; i++) {
+            final int tag = bytes[position++] & 0xFF;
+            offsets[i] = position;
+            switch (tag) {
+                case UTF8:
+                    position += 2 + readUnsignedShort(position);
+                    break;
+                case CLASS:
+                case STRING:
+                case METHOD_TYPE:
+                case MODULE:
+                case PACKAGE:
+                    position += 2;
+                    break;
+                case METHOD_HANDLE:
+                    position += 3;
+                    break;
+                case INTEGER:
+                case FLOAT:
+                case FIELD_REF:
+                case METHOD_REF:
+                case INTERFACE_METHOD_REF:
+                case NAME_AND_TYPE:
+                case DYNAMIC:
+                case INVOKE_DYNAMIC:
+                    position += 4;
+                    break;
+                case LONG:
+                case DOUBLE:
+                    position += 8;
+                    // 8-byte constants take two entries
+                    i++;
+                    break;
+                default:
+                    throw new IOException("Unknown constant pool tag " + tag);
+            }
+        }
+    }
+
+    private void skipAttributes() {
+        final int count = readUnsignedShort();
+        for (int i = 0; i < count; i++) {
+            position += 2;
+            position += 4 + readInt(bytes, position);
+        }
+    }
+
+    private String className(int index) throws IOException {
+        return utf8(readUnsignedShort(offsets[index])).replace('/', '.');
+    }
+
+    /**
+     * @return the {@link Class#getName()} of the type of a field descriptor, or null for a primitive type
+     */
+    private String typeName(int descriptorIndex) throws IOException {
+        final String descriptor = utf8(descriptorIndex);
+        switch (descriptor.charAt(0)) {
+            case 'L':
+                return descriptor.substring(1, descriptor.length() - 1).replace('/', '.');
+            case '[':
+                return descriptor.replace('/', '.');
+            default:
+                return null;
+        }
+    }
+
+    private String utf8(int index) throws IOException {
+        final int offset = offsets[index];
+        final int length = readUnsignedShort(offset);
+        for (int i = offset + 2; i < offset + 2 + length; i++) {
+            if (bytes[i] < 0) {
+                // modified UTF-8, length prefix included
+                return new DataInputStream(new ByteArrayInputStream(bytes, offset, length + 2)).readUTF();
+            }
+        }
+        return new String(bytes, offset + 2, length, StandardCharsets.ISO_8859_1);
+    }
+
+    private int readUnsignedShort() {
+        final int value = readUnsignedShort(position);
+        position += 2;
+        return value;
+    }
+
+    private int readUnsignedShort(int offset) {
+        return ((bytes[offset] & 0xFF) << 8) | (bytes[offset + 1] & 0xFF);
+    }
+
+    private static int readInt(byte[] bytes, int offset) {
+        return ((bytes[offset] & 0xFF) << 24) | ((bytes[offset + 1] & 0xFF) << 16)
+                | ((bytes[offset + 2] & 0xFF) << 8) | (bytes[offset + 3] & 0xFF);
+    }
+}
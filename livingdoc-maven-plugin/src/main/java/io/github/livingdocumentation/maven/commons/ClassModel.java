@@ -0,0 +1,70 @@
+package io.github.livingdocumentation.maven.commons;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * What the diagram needs to know about a class: its names, the types of its non-primitive fields and
+ * the interfaces it implements. Type names follow {@link Class#getName()}.
+ */
+public class ClassModel {
+
+    private final String name;
+    private final List<String> fieldTypes;
+    private final List<String> interfaces;
+
+    public ClassModel(String name, List<String> fieldTypes, List<String> interfaces) {
+        this.name = name;
+        this.fieldTypes = Collections.unmodifiableList(fieldTypes);
+        this.interfaces = Collections.unmodifiableList(interfaces);
+    }
+
+    /**
+     * Builds the model out of a loaded class, using reflection.
+     */
+    public static ClassModel of(Class<?> clazz) {
+        final List<String> fieldTypes = new ArrayList<>();
+        for (Field field : clazz.getDeclaredFields()) {
+            final Class<?> type = field.getType();
+            if (!type.isPrimitive()) {
+                fieldTypes.add(type.getName());
+            }
+        }
+        final List<String> interfaces = new ArrayList<>();
+        for (Class<?> intf : clazz.getInterfaces()) {
+            interfaces.add(intf.getName());
+        }
+        return new ClassModel(clazz.getName(), fieldTypes, interfaces);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the simple name of a top-level class
+     */
+    public String getSimpleName() {
+        return name.substring(name.lastIndexOf('.') + 1);
+    }
+
+    public String getPackageName() {
+        final int dot = name.lastIndexOf('.');
+        return dot < 0 ? "" : name.substring(0, dot);
+    }
+
+    public List<String> getFieldTypes() {
+        return fieldTypes;
+    }
+
+    public List<String> getInterfaces() {
+        return interfaces;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,151 @@
+package io.github.livingdocumentation.maven.commons;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.CodeSource;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Hash of everything a document is generated from: parameters, source files, class files and the code
+ * of the plugin. Values are hashed with their name, in the order they are put.
+ */
+public final class Fingerprint {
+
+    private final Hasher hasher = Hashing.murmur3_128().newHasher();
+    private final SourceStamps stamps;
+
+    public Fingerprint() {
+        this(new SourceStamps());
+    }
+
+    /**
+     * @param stamps the stamps of the source files of the previous build, the content of a file being read only
+     * when its stamp changed
+     */
+    public Fingerprint(SourceStamps stamps) {
+        this.stamps = stamps;
+    }
+
+    /**
+     * Puts a parameter, arrays are hashed element by element.
+     */
+    public Fingerprint put(String name, Object value) {
+        putString(name);
+        putString(value instanceof Object[] ? Arrays.deepToString((Object[]) value) : String.valueOf(value));
+        return this;
+    }
+
+    /**
+     * Puts the relative path and the hash of the content of each source file.
+     */
+    public Fingerprint putSources(List<SourceFile> files) {
+        return putSources(files, true);
+    }
+
+    /**
+     * @param keepContents whether the files keep the contents read, for the parsing to come
+     */
+    public Fingerprint putSources(List<SourceFile> files, boolean keepContents) {
+        for (SourceFile file : files) {
+            putString(file.getRelativePath());
+            hasher.putLong(stamps.hash(file, keepContents));
+        }
+        return this;
+    }
+
+    /**
+     * Puts the path and the content of a file or, for a directory, of every file in it.
+     */
+    public Fingerprint putFile(File file) throws IOException {
+        if (file.isDirectory()) {
+            final List<Path> paths;
+            try (Stream<Path> walk = Files.walk(file.toPath())) {
+                paths = walk.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+            }
+            for (Path path : paths) {
+                putString(path.toString());
+                hasher.putBytes(Files.readAllBytes(path));
+            }
+        } else if (file.isFile()) {
+            putString(file.getPath());
+            hasher.putBytes(Files.readAllBytes(file.toPath()));
+        }
+        return this;
+    }
+
+    /**
+     * Puts the path, size and modification time of a file, for archives too large to be read on every build.
+     */
+    public Fingerprint putFileStamp(File file) {
+        putString(file.getPath());
+        hasher.putLong(file.length()).putLong(file.lastModified());
+        return this;
+    }
+
+    /**
+     * Puts the archive or the directory the class was loaded from, so that any change of the plugin,
+     * templates included, changes the fingerprint.
+     */
+    public Fingerprint putCodeOf(Class<?> type) {
+        final CodeSource source = type.getProtectionDomain().getCodeSource();
+        if (source == null) {
+            return put("code", type.getName());
+        }
+        try {
+            return putFileStamp(new File(source.getLocation().toURI()));
+        } catch (URISyntaxException e) {
+            return put("code", source.getLocation());
+        }
+    }
+
+    public String hash() {
+        return hasher.hash().toString();
+    }
+
+    /**
+     * @return whether the fingerprint file holds the hash and every output file it lists exists
+     */
+    public static boolean isUpToDate(File fingerprintFile, String hash) {
+        if (!fingerprintFile.isFile()) {
+            return false;
+        }
+        try {
+            final Iterator<String> lines = Files.readAllLines(fingerprintFile.toPath(), StandardCharsets.UTF_8).iterator();
+            if (!lines.hasNext() || !lines.next().equals(hash)) {
+                return false;
+            }
+            while (lines.hasNext()) {
+                if (!new File(lines.next()).isFile()) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Saves the hash, followed by the output files generated from the inputs it was computed from.
+     */
+    public static void save(File fingerprintFile, String hash, List<File> outputFiles) throws IOException {
+        final List<String> lines = Stream.concat(Stream.of(hash), outputFiles.stream().map(File::getAbsolutePath))
+                .collect(Collectors.toList());
+        AtomicFiles.write(fingerprintFile, temporary -> Files.write(temporary, lines, StandardCharsets.UTF_8));
+    }
+
+    private void putString(String value) {
+        hasher.putInt(value.length()).putString(value, StandardCharsets.UTF_8);
+    }
+}
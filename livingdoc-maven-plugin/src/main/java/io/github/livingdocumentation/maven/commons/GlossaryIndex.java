@@ -0,0 +1,166 @@
+package io.github.livingdocumentation.maven.commons;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+
+/**
+ * Inverted index of the glossary, from the words of the names and of the comments of the entries to the entries,
+ * sharded by the first character of the words. Each shard is a script of its own, calling
+ * <code>glossaryShard(key, shard)</code>, so that the search of a page loads the shard of a word only when the word
+ * is searched, even from a page opened as a file.
+ */
+public final class GlossaryIndex {
+
+    // ascii punctuation and spaces, the same in glossary-search.js
+    private static final Pattern SEPARATORS = Pattern.compile("[\\x00-\\x2F\\x3A-\\x40\\x5B-\\x60\\x7B-\\x7F]+");
+    private static final Pattern CAMEL_CASE = Pattern.compile("(?<=[a-z0-9])(?=[A-Z])|(?<=[A-Z])(?=[A-Z][a-z])");
+    private static final Pattern TAGS = Pattern.compile("<[^>]*>");
+    private static final Set<String> STOPWORDS = new HashSet<>(Arrays.asList("an", "and", "are", "as", "at", "be",
+            "by", "for", "from", "in", "is", "it", "of", "on", "or", "the", "this", "that", "to", "with"));
+
+    private final List<String[]> entries = new ArrayList<>();
+    // shard key, then word, then entries
+    private final Map<Character, Map<String, SortedSet<Integer>>> shards = new TreeMap<>();
+
+    /**
+     * @param name    the name of the entry
+     * @param comment the definition of the entry, html tags ignored, may be null
+     * @param href    the link to the entry
+     */
+    public void add(String name, String comment, String href) {
+        final int entry = entries.size();
+        entries.add(new String[] { name, href });
+        for (String word : words(name, comment)) {
+            shards.computeIfAbsent(shardKey(word), k -> new TreeMap<>())
+                    .computeIfAbsent(word, w -> new TreeSet<>())
+                    .add(entry);
+        }
+    }
+
+    /**
+     * @return the words of the name, whole and split at its camel case humps, then the words of the comment
+     */
+    static Set<String> words(String name, String comment) {
+        final Set<String> words = new LinkedHashSet<>();
+        for (String word : SEPARATORS.split(name)) {
+            addWord(words, word);
+            for (String part : CAMEL_CASE.split(word)) {
+                addWord(words, part);
+            }
+        }
+        if (comment != null) {
+            for (String word : SEPARATORS.split(TAGS.matcher(comment).replaceAll(" "))) {
+                addWord(words, word);
+            }
+        }
+        return words;
+    }
+
+    private static void addWord(Set<String> words, String word) {
+        final String lowerCase = word.toLowerCase(Locale.ROOT);
+        if (lowerCase.length() > 1 && !STOPWORDS.contains(lowerCase)) {
+            words.add(lowerCase);
+        }
+    }
+
+    private static char shardKey(String word) {
+        final char first = word.charAt(0);
+        return first >= 'a' && first <= 'z' || first >= '0' && first <= '9' ? first : '_';
+    }
+
+    /**
+     * @return the number of distinct words
+     */
+    public int size() {
+        return shards.values().stream().mapToInt(Map::size).sum();
+    }
+
+    /**
+     * Writes one script per shard, <code>a.js</code>, <code>b.js</code>... The shards of a previous index are
+     * deleted first.
+     *
+     * @return the files written
+     */
+    public List<File> write(File directory) throws IOException {
+        directory.mkdirs();
+        final File[] previous = directory.listFiles((dir, name) -> name.endsWith(".js"));
+        for (File file : previous == null ? new File[0] : previous) {
+            Files.delete(file.toPath());
+        }
+        final List<File> files = new ArrayList<>();
+        for (Map.Entry<Character, Map<String, SortedSet<Integer>>> shard : shards.entrySet()) {
+            final File file = new File(directory, shard.getKey() + ".js");
+            AtomicFiles.write(file, temporary -> {
+                try (Writer out = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+                    writeShard(shard.getKey(), shard.getValue(), out);
+                }
+            });
+            files.add(file);
+        }
+        return files;
+    }
+
+    /**
+     * Writes the entries of the shard, numbered again from 0, then the entries of each word.
+     */
+    private void writeShard(char key, Map<String, SortedSet<Integer>> words, Writer out) throws IOException {
+        final Map<Integer, Integer> local = new TreeMap<>();
+        words.values().forEach(list -> list.forEach(entry -> local.putIfAbsent(entry, 0)));
+        int next = 0;
+        for (Map.Entry<Integer, Integer> entry : local.entrySet()) {
+            entry.setValue(next++);
+        }
+        out.write("glossaryShard(\"" + key + "\", {\"entries\": [");
+        String separator = "\n";
+        for (Integer entry : local.keySet()) {
+            final String[] nameAndHref = entries.get(entry);
+            out.write(separator + "[" + quote(nameAndHref[0]) + ", " + quote(nameAndHref[1]) + "]");
+            separator = ",\n";
+        }
+        out.write("],\n\"words\": {");
+        separator = "\n";
+        for (Map.Entry<String, SortedSet<Integer>> word : words.entrySet()) {
+            out.write(separator + quote(word.getKey()) + ": [");
+            String comma = "";
+            for (Integer entry : word.getValue()) {
+                out.write(comma + local.get(entry));
+                comma = ",";
+            }
+            out.write("]");
+            separator = ",\n";
+        }
+        out.write("}});\n");
+    }
+
+    /**
+     * @return the text as a javascript string literal
+     */
+    static String quote(String text) {
+        final StringBuilder quoted = new StringBuilder(text.length() + 2).append('"');
+        for (char c : text.toCharArray()) {
+            if (c == '"' || c == '\\') {
+                quoted.append('\\').append(c);
+            } else if (c < 0x20 || c == 0x2028 || c == 0x2029) {
+                quoted.append(String.format("\\u%04x", (int) c));
+            } else {
+                quoted.append(c);
+            }
+        }
+        return quoted.append('"').toString();
+    }
+}
@@ -0,0 +1,246 @@
+package io.github.livingdocumentation.maven.commons;
+
+import org.apache.maven.plugin.logging.Log;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Phase timings and work counters of a goal, reported as one log line and as JSON: the metrics of each goal
+ * are kept in their own file, and every report combines the files of all the goals run so far into a single
+ * document. Phases and counters accumulate, in the order they are first recorded.
+ */
+public final class Metrics {
+
+    private static final String METRICS_DIRECTORY = "metrics";
+    private static final long SAMPLE_PERIOD_MS = 10;
+    private static final ScheduledExecutorService SAMPLER = Executors.newSingleThreadScheduledExecutor(r -> {
+        final Thread thread = new Thread(r, "livingdoc-heap-sampler");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Times a phase until closed
+     */
+    public interface Phase extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private final String goal;
+    private final long start = System.nanoTime();
+    private final long heapBefore;
+    private final AtomicLong heapPeak;
+    private volatile ScheduledFuture<?> sampling;
+    private final Map<String, Long> phases = new LinkedHashMap<>();
+    private final Map<String, Long> counters = new LinkedHashMap<>();
+
+    /**
+     * @param goal the name of the goal, or of the renderer whose metrics are added to those of the goal
+     */
+    public Metrics(String goal) {
+        this(goal, 0);
+    }
+
+    private Metrics(String goal, long heapBefore) {
+        this.goal = goal;
+        this.heapBefore = heapBefore;
+        this.heapPeak = new AtomicLong(heapBefore);
+    }
+
+    /**
+     * @return the metrics of a goal, whose heap growth is sampled from now on until reported, without touching the
+     * peaks of the memory pools, which belong to the whole JVM. The peak is approximate: a shorter spike between
+     * two samples is missed and, in a parallel build, the heap is shared, and the growth includes the goals of the
+     * other modules run meanwhile.
+     */
+    public static Metrics start(String goal) {
+        final Metrics metrics = new Metrics(goal, usedHeap());
+        final WeakReference<Metrics> reference = new WeakReference<>(metrics);
+        metrics.sampling = SAMPLER.scheduleAtFixedRate(() -> {
+            final Metrics sampled = reference.get();
+            if (sampled == null) {
+                // never reported, the exception cancels the sampling
+                throw new IllegalStateException("metrics collected");
+            }
+            sampled.sampleHeap();
+        }, SAMPLE_PERIOD_MS, SAMPLE_PERIOD_MS, TimeUnit.MILLISECONDS);
+        return metrics;
+    }
+
+    private void sampleHeap() {
+        final long used = usedHeap();
+        heapPeak.accumulateAndGet(used, Math::max);
+    }
+
+    public Phase phase(String name) {
+        final long phaseStart = System.nanoTime();
+        return () -> add(phases, name, System.nanoTime() - phaseStart);
+    }
+
+    public <T> T time(String phase, Supplier<T> work) {
+        try (Phase ignored = phase(phase)) {
+            return work.get();
+        }
+    }
+
+    public Metrics count(String counter, long value) {
+        add(counters, counter, value);
+        return this;
+    }
+
+    /**
+     * Counts the bytes of the files just written
+     */
+    public Metrics countWritten(File... files) {
+        return count("bytesWritten", Arrays.stream(files).mapToLong(File::length).sum());
+    }
+
+    public Metrics addAll(Metrics other) {
+        return addAll("", other);
+    }
+
+    /**
+     * Adds the phases and the counters of other metrics, their names prefixed
+     */
+    public Metrics addAll(String prefix, Metrics other) {
+        other.getPhases().forEach((name, nanos) -> add(phases, prefix + name, nanos));
+        other.getCounters().forEach((name, value) -> add(counters, prefix + name, value));
+        return this;
+    }
+
+    /**
+     * @return the nanoseconds spent in each phase
+     */
+    public synchronized Map<String, Long> getPhases() {
+        return new LinkedHashMap<>(phases);
+    }
+
+    public synchronized Map<String, Long> getCounters() {
+        return new LinkedHashMap<>(counters);
+    }
+
+    private synchronized void add(Map<String, Long> values, String name, long value) {
+        values.merge(name, value, Long::sum);
+    }
+
+    /**
+     * Logs the summary of the goal, then writes its metrics and the combined metrics of all the goals.
+     *
+     * @param cacheDirectory the directory the metrics of each goal are kept in
+     * @param report the file of the combined metrics
+     */
+    public void report(File cacheDirectory, File report, Log log) {
+        final long elapsed = System.nanoTime() - start;
+        final long heapDelta = heapDelta();
+        log.info(summary(elapsed, heapDelta));
+        final File directory = new File(cacheDirectory, METRICS_DIRECTORY);
+        try {
+            directory.mkdirs();
+            AtomicFiles.write(new File(directory, goal + ".json"),
+                    toJson(elapsed, heapDelta).getBytes(StandardCharsets.UTF_8));
+            combine(directory, report);
+        } catch (IOException e) {
+            log.warn("Unable to write the metrics " + report + ": " + e.getMessage());
+        }
+    }
+
+    private String summary(long elapsed, long heapDelta) {
+        final StringBuilder summary = new StringBuilder(goal).append(": ").append(millis(elapsed)).append(" ms");
+        synchronized (this) {
+            String separator = " (";
+            for (Map.Entry<String, Long> phase : phases.entrySet()) {
+                summary.append(separator).append(phase.getKey()).append(' ').append(millis(phase.getValue()))
+                        .append(" ms");
+                separator = ", ";
+            }
+            if (!phases.isEmpty()) {
+                summary.append(')');
+            }
+            counters.forEach((name, value) -> summary.append(", ").append(name).append(' ').append(value));
+        }
+        return summary.append(", heap +").append(heapDelta >> 20).append(" MB").toString();
+    }
+
+    synchronized String toJson(long elapsed, long heapDelta) {
+        final StringBuilder json = new StringBuilder("{\n");
+        json.append("  \"timestamp\": \"").append(Instant.now()).append("\",\n");
+        json.append("  \"durationMs\": ").append(millis(elapsed)).append(",\n");
+        json.append("  \"phasesMs\": {");
+        appendFields(json, phases, true);
+        json.append("},\n  \"counters\": {");
+        appendFields(json, counters, false);
+        json.append("},\n  \"peakHeapDeltaBytes\": ").append(heapDelta).append("\n}");
+        return json.toString();
+    }
+
+    private static void appendFields(StringBuilder json, Map<String, Long> values, boolean nanos) {
+        String separator = "\n    ";
+        for (Map.Entry<String, Long> value : values.entrySet()) {
+            json.append(separator).append('"').append(value.getKey()).append("\": ")
+                    .append(nanos ? millis(value.getValue()) : value.getValue());
+            separator = ",\n    ";
+        }
+        if (!values.isEmpty()) {
+            json.append("\n  ");
+        }
+    }
+
+    /**
+     * Writes the metrics of every goal as the fields of a single object, by goal name
+     */
+    static void combine(File directory, File report) throws IOException {
+        final File[] files = directory.listFiles((dir, name) -> name.endsWith(".json"));
+        final List<File> goals = files == null ? new ArrayList<>() : Arrays.asList(files);
+        Collections.sort(goals);
+        final StringBuilder json = new StringBuilder("{");
+        String separator = "\n";
+        for (File file : goals) {
+            final String name = file.getName().substring(0, file.getName().length() - ".json".length());
+            final String metrics = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+            json.append(separator).append("  \"").append(name).append("\": ").append(metrics.replace("\n", "\n  "));
+            separator = ",\n";
+        }
+        json.append("\n}\n");
+        AtomicFiles.write(report, json.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return the growth of the sampled heap since the start, 0 for metrics not started
+     */
+    private long heapDelta() {
+        final ScheduledFuture<?> started = sampling;
+        if (started == null) {
+            return 0;
+        }
+        started.cancel(false);
+        sampleHeap();
+        return Math.max(0, heapPeak.get() - heapBefore);
+    }
+
+    private static long usedHeap() {
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private static long millis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+}
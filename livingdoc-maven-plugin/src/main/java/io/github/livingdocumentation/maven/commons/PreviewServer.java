@@ -0,0 +1,213 @@
+package io.github.livingdocumentation.maven.commons;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Local HTTP server of the generated documents, kept in memory as published, with live reload: every html page
+ * polls the server, which answers as soon as a newer version of the documents is published. Anything not
+ * published, like the shared scripts, is served from the output directory.
+ */
+public final class PreviewServer implements Closeable {
+
+    private static final String RELOAD_PATH = "/livereload";
+    private static final long RELOAD_TIMEOUT = TimeUnit.SECONDS.toMillis(20);
+    private static final String RELOAD_SCRIPT = "<script>(function poll(version) {\n"
+            + "  fetch('" + RELOAD_PATH + "?version=' + version)\n"
+            + "    .then(function (response) { return response.text(); })\n"
+            + "    .then(function (latest) {\n"
+            + "      if (latest !== String(version)) location.reload(); else poll(version);\n"
+            + "    })\n"
+            + "    .catch(function () { setTimeout(function () { poll(version); }, 1000); });\n"
+            + "})(%d);</script>\n";
+
+    private final File root;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Map<String, byte[]> documents = new ConcurrentHashMap<>();
+    private long version;
+
+    private PreviewServer(File root, HttpServer server, ExecutorService executor) {
+        this.root = root;
+        this.server = server;
+        this.executor = executor;
+    }
+
+    /**
+     * Starts serving on the loopback interface
+     *
+     * @param root the directory the documents are published from
+     * @param port the port, 0 for any free port
+     */
+    public static PreviewServer start(File root, int port) throws IOException {
+        final HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        // the reload requests wait for the next version, each on its own thread
+        final ExecutorService executor = Executors.newCachedThreadPool(r -> {
+            final Thread thread = new Thread(r, "livingdoc-preview");
+            thread.setDaemon(true);
+            return thread;
+        });
+        final PreviewServer preview = new PreviewServer(root, server, executor);
+        server.createContext("/", preview::handle);
+        server.setExecutor(executor);
+        server.start();
+        return preview;
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Reads the files into memory and, when any of them changed, makes them a new version of the documents, then
+     * wakes the pages up to reload.
+     *
+     * @return whether a file differs from its previous publication
+     */
+    public boolean publish(List<File> files) throws IOException {
+        boolean changed = false;
+        for (File file : files) {
+            final byte[] content = Files.readAllBytes(file.toPath());
+            final Path relative = root.getAbsoluteFile().toPath().relativize(file.getAbsoluteFile().toPath());
+            final byte[] previous = documents.put("/" + relative.toString().replace(File.separatorChar, '/'),
+                    content);
+            changed |= !Arrays.equals(previous, content);
+        }
+        if (changed) {
+            synchronized (this) {
+                version++;
+                notifyAll();
+            }
+        }
+        return changed;
+    }
+
+    private synchronized long getVersion() {
+        return version;
+    }
+
+    private static byte[] withReload(byte[] content, long version) {
+        final String html = new String(content, StandardCharsets.UTF_8);
+        final String script = String.format(RELOAD_SCRIPT, version);
+        final int body = html.toLowerCase().lastIndexOf("</body>");
+        final String reloading = body < 0 ? html + script : html.substring(0, body) + script + html.substring(body);
+        return reloading.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            final String path = exchange.getRequestURI().getPath();
+            if (RELOAD_PATH.equals(path)) {
+                final String query = exchange.getRequestURI().getQuery();
+                final long known = query != null && query.startsWith("version=") ? parse(query.substring(8)) : -1;
+                send(exchange, 200, "text/plain", String.valueOf(awaitVersion(known)).getBytes(StandardCharsets.UTF_8));
+            } else if ("/".equals(path)) {
+                send(exchange, 200, "text/html; charset=utf-8", index());
+            } else if (documents.containsKey(path)) {
+                // the pages not published again poll for the current version too
+                final byte[] content = documents.get(path);
+                send(exchange, 200, contentType(path),
+                        path.endsWith(".html") ? withReload(content, getVersion()) : content);
+            } else {
+                final File file = new File(root, path.substring(1));
+                final boolean inRoot = file.getCanonicalPath().startsWith(root.getCanonicalPath() + File.separator);
+                if (inRoot && file.isFile()) {
+                    send(exchange, 200, contentType(path), Files.readAllBytes(file.toPath()));
+                } else {
+                    send(exchange, 404, "text/plain", ("Not found: " + path).getBytes(StandardCharsets.UTF_8));
+                }
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * @return the current version, once it differs from the known one or after a while
+     */
+    private synchronized long awaitVersion(long known) {
+        final long deadline = System.currentTimeMillis() + RELOAD_TIMEOUT;
+        long remaining = RELOAD_TIMEOUT;
+        while (version == known && remaining > 0) {
+            try {
+                wait(remaining);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            remaining = deadline - System.currentTimeMillis();
+        }
+        return version;
+    }
+
+    private static long parse(String number) {
+        try {
+            return Long.parseLong(number);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private byte[] index() {
+        final StringBuilder html = new StringBuilder("<!DOCTYPE html><meta charset=\"utf-8\">"
+                + "<title>Living Documentation</title><body><h1>Living Documentation</h1><ul>\n");
+        for (String path : new TreeMap<>(documents).keySet()) {
+            if (path.endsWith(".html")) {
+                html.append("<li><a href=\"").append(path).append("\">").append(path.substring(1))
+                        .append("</a></li>\n");
+            }
+        }
+        html.append("</ul></body>");
+        return withReload(html.toString().getBytes(StandardCharsets.UTF_8), getVersion());
+    }
+
+    private static String contentType(String path) {
+        if (path.endsWith(".html")) {
+            return "text/html; charset=utf-8";
+        }
+        if (path.endsWith(".svg")) {
+            return "image/svg+xml";
+        }
+        if (path.endsWith(".js")) {
+            return "application/javascript";
+        }
+        if (path.endsWith(".css")) {
+            return "text/css";
+        }
+        return "application/octet-stream";
+    }
+
+    private static void send(HttpExchange exchange, int status, String contentType, byte[] content)
+            throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.getResponseHeaders().set("Cache-Control", "no-store");
+        exchange.sendResponseHeaders(status, content.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(content);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,34 @@
+package io.github.livingdocumentation.maven.commons;
+
+import org.apache.maven.AbstractMavenLifecycleParticipant;
+import org.apache.maven.execution.MavenSession;
+import org.eclipse.aether.SessionData;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the Asciidoctor instances of the plugin until the end of the build session, then shuts them down. Maven
+ * only calls it when the plugin is declared with <code>&lt;extensions&gt;true&lt;/extensions&gt;</code>.
+ */
+public class SessionEndListener extends AbstractMavenLifecycleParticipant {
+
+    @Override
+    public void afterProjectsRead(MavenSession session) {
+        // only the first listener of the session, each extension class loader having its own
+        session.getRepositorySession().getData().set(SharedAsciidoctor.SHUTDOWNS, null,
+                Collections.newSetFromMap(new ConcurrentHashMap<Runnable, Boolean>()));
+    }
+
+    @Override
+    public void afterSessionEnd(MavenSession session) {
+        final SessionData data = session.getRepositorySession().getData();
+        final Object shutdowns = data.get(SharedAsciidoctor.SHUTDOWNS);
+        if (shutdowns instanceof Collection && data.set(SharedAsciidoctor.SHUTDOWNS, shutdowns, null)) {
+            for (Object shutdown : (Collection<?>) shutdowns) {
+                ((Runnable) shutdown).run();
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package io.github.livingdocumentation.maven.commons;
+
+import org.apache.maven.execution.MavenSession;
+import org.asciidoctor.Asciidoctor;
+import org.eclipse.aether.RepositorySystemSession;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Asciidoctor instance shared by every execution of the plugin in a build. Starting the JRuby runtime
+ * takes seconds, so it is created on the first conversion and, when the plugin is declared as a build extension,
+ * kept in the plugin class loader across the modules of the reactor until the end of the build session.
+ * Conversions are serialized.
+ */
+public final class SharedAsciidoctor {
+
+    /**
+     * Key of the shutdowns to run at the end of the session, in the data of the repository session: a collection
+     * of {@link Runnable}, as each class loader of the plugin has an instance of its own
+     */
+    static final String SHUTDOWNS = SharedAsciidoctor.class.getName() + ".shutdowns";
+
+    private static final Runnable SHUTDOWN = SharedAsciidoctor::shutdown;
+
+    private static Asciidoctor asciidoctor;
+
+    private SharedAsciidoctor() {
+    }
+
+    public static synchronized void convert(Reader source, Writer target, Map<String, Object> options)
+            throws IOException {
+        get().convert(source, target, options);
+    }
+
+    private static Asciidoctor get() {
+        if (asciidoctor == null) {
+            asciidoctor = Asciidoctor.Factory.create();
+        }
+        return asciidoctor;
+    }
+
+    /**
+     * Shuts the instance down at the end of the build session when the {@link SessionEndListener} of the build
+     * extension is there to do it, else right away.
+     */
+    @SuppressWarnings("unchecked")
+    public static void releaseAtEndOf(MavenSession session) {
+        final RepositorySystemSession repositorySession = session == null ? null : session.getRepositorySession();
+        final Object shutdowns = repositorySession == null ? null : repositorySession.getData().get(SHUTDOWNS);
+        if (shutdowns instanceof Collection) {
+            ((Collection<Runnable>) shutdowns).add(SHUTDOWN);
+        } else {
+            shutdown();
+        }
+    }
+
+    public static synchronized void shutdown() {
+        if (asciidoctor != null) {
+            asciidoctor.shutdown();
+            asciidoctor = null;
+        }
+    }
+}
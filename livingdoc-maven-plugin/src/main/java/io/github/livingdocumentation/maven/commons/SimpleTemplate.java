@@ -3,7 +3,13 @@ package io.github.livingdocumentation.maven.commons;
 import org.apache.maven.shared.utils.StringUtils;
 
 import java.io.*;
+import java.nio.file.Files;
 
+/**
+ * @deprecated copies the whole page for every placeholder, use {@link Template} which is parsed once and streams
+ * the page
+ */
+@Deprecated
 public class SimpleTemplate {
 
 	public static String evaluate(final String template, String title, String content) {
@@ -31,8 +37,7 @@ public class SimpleTemplate {
 		return buffer.toString();
 	}
 
-	public static void write(String path, String filename, String content) throws UnsupportedEncodingException,
-			FileNotFoundException {
+	public static void write(String path, String filename, String content) throws IOException {
 		String outputFileName;
 		if (StringUtils.isEmpty(path)) {
 			outputFileName = filename;
@@ -40,12 +45,12 @@ public class SimpleTemplate {
 			outputFileName = path + "/" + filename;
 		}
 		final String outputEncoding = "UTF-8";
-		final FileOutputStream fos = new FileOutputStream(outputFileName);
-		final PrintWriter w = new PrintWriter(new BufferedWriter(new OutputStreamWriter(fos, outputEncoding)));
-
-		w.println(content);
-		w.flush();
-		w.close();
+		AtomicFiles.write(new File(outputFileName), temporary -> {
+			try (PrintWriter w = new PrintWriter(new BufferedWriter(new OutputStreamWriter(
+					Files.newOutputStream(temporary), outputEncoding)))) {
+				w.println(content);
+			}
+		});
 	}
 
 }
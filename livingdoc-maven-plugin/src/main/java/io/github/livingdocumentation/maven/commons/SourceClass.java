@@ -0,0 +1,146 @@
+package io.github.livingdocumentation.maven.commons;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable model of a class parsed from the sources: what the glossary and the guided tours read of it, so
+ * that it can be built by parallel parsers then shared without the QDox model behind it.
+ */
+public final class SourceClass {
+
+    /**
+     * An annotation, with its type resolved and its named parameters as written in the source
+     */
+    public static final class Annotation {
+        private final String type;
+        private final Map<String, String> namedParameters;
+
+        public Annotation(String type, Map<String, String> namedParameters) {
+            this.type = type;
+            this.namedParameters = Collections.unmodifiableMap(namedParameters);
+        }
+
+        /**
+         * @return the fully qualified name of the type, or the name as written when it could not be resolved
+         */
+        public String getType() {
+            return type;
+        }
+
+        /**
+         * @return the expression of the parameter, string literals quoted, null when absent
+         */
+        public String getNamedParameter(String name) {
+            return namedParameters.get(name);
+        }
+    }
+
+    public static final class Method {
+        private final String callSignature;
+        private final String codeBlock;
+        private final int lineNumber;
+        private final List<Annotation> annotations;
+
+        public Method(String callSignature, String codeBlock, int lineNumber, List<Annotation> annotations) {
+            this.callSignature = callSignature;
+            this.codeBlock = codeBlock;
+            this.lineNumber = lineNumber;
+            this.annotations = Collections.unmodifiableList(annotations);
+        }
+
+        public String getCallSignature() {
+            return callSignature;
+        }
+
+        public String getCodeBlock() {
+            return codeBlock;
+        }
+
+        public int getLineNumber() {
+            return lineNumber;
+        }
+
+        public List<Annotation> getAnnotations() {
+            return annotations;
+        }
+    }
+
+    private final String fullyQualifiedName;
+    private final String name;
+    private final String packageName;
+    private final String comment;
+    private final int lineNumber;
+    private final boolean isEnum;
+    private final boolean isInterface;
+    private final List<Annotation> annotations;
+    private final List<Method> methods;
+    private final SourceFile sourceFile;
+
+    public SourceClass(String fullyQualifiedName, String name, String packageName, String comment, int lineNumber,
+                       boolean isEnum, boolean isInterface, List<Annotation> annotations, List<Method> methods,
+                       SourceFile sourceFile) {
+        this.fullyQualifiedName = fullyQualifiedName;
+        this.name = name;
+        this.packageName = packageName;
+        this.comment = comment;
+        this.lineNumber = lineNumber;
+        this.isEnum = isEnum;
+        this.isInterface = isInterface;
+        this.annotations = Collections.unmodifiableList(annotations);
+        this.methods = Collections.unmodifiableList(methods);
+        this.sourceFile = sourceFile;
+    }
+
+    public String getFullyQualifiedName() {
+        return fullyQualifiedName;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getPackageName() {
+        return packageName;
+    }
+
+    public String getComment() {
+        return comment;
+    }
+
+    public int getLineNumber() {
+        return lineNumber;
+    }
+
+    public boolean isEnum() {
+        return isEnum;
+    }
+
+    public boolean isInterface() {
+        return isInterface;
+    }
+
+    public List<Annotation> getAnnotations() {
+        return annotations;
+    }
+
+    /**
+     * @return the methods declared by the class, the inherited ones aside
+     */
+    public List<Method> getMethods() {
+        return methods;
+    }
+
+    /**
+     * @return the file the class was parsed from
+     */
+    public SourceFile getSourceFile() {
+        return sourceFile;
+    }
+
+    @Override
+    public String toString() {
+        return fullyQualifiedName;
+    }
+}
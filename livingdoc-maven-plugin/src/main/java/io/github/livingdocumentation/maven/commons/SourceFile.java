@@ -0,0 +1,96 @@
+package io.github.livingdocumentation.maven.commons;
+
+import com.google.common.hash.Hashing;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+
+/**
+ * A Java source file found while scanning a source folder. The content is read lazily, at most once, unless read
+ * through {@link #readContent()}.
+ */
+public class SourceFile {
+
+    private final File baseDir;
+    private final String relativePath;
+    private final Charset charset;
+    private volatile String content;
+    private volatile Long hash;
+
+    public SourceFile(File baseDir, String relativePath, Charset charset) {
+        this.baseDir = baseDir;
+        this.relativePath = relativePath;
+        this.charset = charset;
+    }
+
+    public File getBaseDir() {
+        return baseDir;
+    }
+
+    /**
+     * @return the path relative to the source folder, using the platform separator
+     */
+    public String getRelativePath() {
+        return relativePath;
+    }
+
+    public File getFile() {
+        return new File(baseDir, relativePath);
+    }
+
+    /**
+     * @return the decoded content of the file, read on first access
+     */
+    public String getContent() {
+        String result = content;
+        if (result == null) {
+            synchronized (this) {
+                result = content;
+                if (result == null) {
+                    result = read();
+                    content = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return the decoded content of the file, read again on each call unless already kept by
+     * {@link #getContent()}, so that the content can be collected once used
+     */
+    public String readContent() {
+        final String result = content;
+        return result != null ? result : read();
+    }
+
+    /**
+     * @param keepContent whether to keep the content read, as {@link #getContent()} does
+     * @return the hash of the decoded content, computed at most once
+     */
+    public long getHash(boolean keepContent) {
+        Long result = hash;
+        if (result == null) {
+            final String text = keepContent ? getContent() : readContent();
+            result = Hashing.murmur3_128().hashUnencodedChars(text).asLong();
+            hash = result;
+        }
+        return result;
+    }
+
+    private String read() {
+        try {
+            return new String(Files.readAllBytes(getFile().toPath()), charset);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return relativePath;
+    }
+}
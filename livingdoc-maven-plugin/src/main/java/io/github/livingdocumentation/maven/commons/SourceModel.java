@@ -0,0 +1,174 @@
+package io.github.livingdocumentation.maven.commons;
+
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.shared.utils.io.DirectoryScanner;
+
+import java.io.File;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Source files of the project, scanned once and shared by every renderer: the file list, the raw
+ * contents (read lazily) and the parsed classes (parsed lazily, once per selection of files).
+ */
+public class SourceModel {
+
+    public static final String[] JAVA_FILES = new String[] { "**/*.java" };
+
+    private final List<SourceFile> files;
+    private final Log log;
+    private final Map<String, List<SourceClass>> classes = new HashMap<>();
+
+    public SourceModel(List<SourceFile> files, Log log) {
+        this.files = Collections.unmodifiableList(files);
+        this.log = log;
+    }
+
+    /**
+     * Scans the given source folders for Java files. Missing folders are ignored.
+     */
+    public static SourceModel scan(List<String> sourceFolders, Log log) {
+        return scan(sourceFolders, JAVA_FILES, new String[0], log);
+    }
+
+    /**
+     * Scans the given source folders for the files matching the fileset patterns. Missing folders are ignored.
+     * The folders are scanned in parallel, the files are listed in the order of the folders.
+     */
+    public static SourceModel scan(List<String> sourceFolders, String[] includes, String[] excludes, Log log) {
+        final Charset charset = Charset.defaultCharset();
+        final List<SourceFile> files = sourceFolders.parallelStream()
+                .map(folder -> scanFolder(folder, includes, excludes, charset, log))
+                .flatMap(List::stream)
+                .collect(Collectors.toList());
+        return new SourceModel(files, log);
+    }
+
+    private static List<SourceFile> scanFolder(String folder, String[] includes, String[] excludes, Charset charset,
+                                               Log log) {
+        final File baseDir = new File(folder);
+        if (!baseDir.isDirectory()) {
+            log.debug(String.format("source folder %s does not exist", folder));
+            return Collections.emptyList();
+        }
+        DirectoryScanner ds = new DirectoryScanner();
+        ds.setBasedir(baseDir);
+        ds.setIncludes(includes);
+        ds.setExcludes(excludes);
+        ds.scan();
+        final List<SourceFile> files = new ArrayList<>();
+        for (String f : ds.getIncludedFiles()) {
+            files.add(new SourceFile(baseDir, f, charset));
+        }
+        return files;
+    }
+
+    /**
+     * @return the fileset pattern of the Java files of the packages starting with the prefix, so that the scan
+     * does not walk into the directories of the other packages; all the Java files for a null prefix
+     */
+    public static String[] javaFilesUnder(String packagePrefix) {
+        if (packagePrefix == null) {
+            return JAVA_FILES;
+        }
+        return new String[] { packagePrefix.replace('.', '/') + "*/**/*.java" };
+    }
+
+    /**
+     * Reads the content of every file in parallel, instead of one by one when first accessed.
+     */
+    public SourceModel readAll() {
+        files.parallelStream().forEach(SourceFile::getContent);
+        return this;
+    }
+
+    public List<SourceFile> getFiles() {
+        return files;
+    }
+
+    /**
+     * @return the classes of all the Java source files, parsed on first access
+     */
+    public List<SourceClass> getClasses() {
+        return getClasses(null, null);
+    }
+
+    /**
+     * @return the classes of the {@link #candidates(String, String) candidate} Java source files, parsed in
+     * parallel on first access
+     */
+    public synchronized List<SourceClass> getClasses(String packagePrefix, String annotation) {
+        return classes.computeIfAbsent(packagePrefix + "|" + annotation, key -> {
+            final List<SourceFile> candidates = candidates(packagePrefix, annotation);
+            if (log.isDebugEnabled()) {
+                log.debug(String.format("parsing %d of %d files for %s", candidates.size(), files.size(), key));
+            }
+            return Collections.unmodifiableList(
+                    SourceParser.parse(candidates, Runtime.getRuntime().availableProcessors(), log));
+        });
+    }
+
+    /**
+     * Parses the {@link #candidates(String, String) candidate} Java source files in batches, keeping only the
+     * classes carrying a relevant annotation, or declaring a method that does, with only those methods, instead of
+     * every class of every file. Neither the contents of the files nor the classes are kept by the model: each call
+     * reads the files again, and the memory used does not grow with the number of files.
+     *
+     * @param batchSize the number of files parsed by a builder
+     * @param relevant whether an annotation is read by the documents
+     */
+    public List<SourceClass> getClassesInBatches(String packagePrefix, String annotation, int batchSize,
+                                                 Predicate<SourceClass.Annotation> relevant) {
+        final String simpleName = simpleName(annotation);
+        final List<SourceFile> candidates = new ArrayList<>();
+        final List<SourceFile> library = new ArrayList<>();
+        for (SourceFile f : files) {
+            if (isUnder(f, packagePrefix)) {
+                final String content = f.readContent();
+                if (content.contains(simpleName)) {
+                    candidates.add(f);
+                    if (content.contains("@interface")) {
+                        library.add(f);
+                    }
+                }
+            }
+        }
+        if (log.isDebugEnabled()) {
+            log.debug(String.format("parsing %d of %d files in batches of %d", candidates.size(), files.size(),
+                    batchSize));
+        }
+        return Collections.unmodifiableList(SourceParser.parseInBatches(candidates, library, batchSize, relevant,
+                log));
+    }
+
+    /**
+     * Selects the Java files that may hold an element with the annotation, before any parsing: the files out of
+     * the package directories are skipped, then the files whose content never mentions the simple name of the
+     * annotation. The file declaring the annotation mentions it, so that it is parsed too.
+     *
+     * @param packagePrefix the prefix of the packages, null for any package
+     * @param annotation the name, simple or qualified, of the annotation, null for any file
+     */
+    public List<SourceFile> candidates(String packagePrefix, String annotation) {
+        final String simpleName = simpleName(annotation);
+        return files.stream()
+                .filter(f -> isUnder(f, packagePrefix))
+                .filter(f -> f.getContent().contains(simpleName))
+                .collect(Collectors.toList());
+    }
+
+    private static boolean isUnder(SourceFile file, String packagePrefix) {
+        final String path = packagePrefix == null ? "" : packagePrefix.replace('.', File.separatorChar);
+        return file.getRelativePath().endsWith(".java") && file.getRelativePath().startsWith(path);
+    }
+
+    private static String simpleName(String annotation) {
+        return annotation == null ? "" : annotation.substring(annotation.lastIndexOf('.') + 1);
+    }
+}
@@ -0,0 +1,123 @@
+package io.github.livingdocumentation.maven.commons;
+
+import com.thoughtworks.qdox.JavaProjectBuilder;
+import com.thoughtworks.qdox.model.JavaAnnotatedElement;
+import com.thoughtworks.qdox.model.JavaAnnotation;
+import com.thoughtworks.qdox.model.JavaClass;
+import com.thoughtworks.qdox.model.JavaMethod;
+import com.thoughtworks.qdox.model.JavaSource;
+import org.apache.maven.plugin.logging.Log;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Parses source files in slices, one per worker of the fork-join pool, each slice with its own QDox builder, then
+ * merges the classes into a single immutable model, in the order of the files.
+ * <p>
+ * A builder only resolves the types declared in its own sources, so every builder is also given the library of
+ * the annotation declarations: the annotations then resolve, and show in the code blocks, the same whatever
+ * the slice of their file.
+ */
+public final class SourceParser {
+
+    // below this, a slice costs more than it saves
+    private static final int MIN_FILES_PER_SLICE = 8;
+
+    private SourceParser() {
+    }
+
+    /**
+     * @param workers the number of slices at most, 1 to parse on the calling thread
+     */
+    public static List<SourceClass> parse(List<SourceFile> files, int workers, Log log) {
+        final int slices = Math.max(1, Math.min(workers, files.size() / MIN_FILES_PER_SLICE));
+        final List<SourceFile> library = files.stream()
+                .filter(f -> f.getContent().contains("@interface"))
+                .collect(Collectors.toList());
+        final IntStream indexes = IntStream.range(0, slices);
+        return (slices > 1 ? indexes.parallel() : indexes)
+                .mapToObj(i -> parseSlice(files.subList(i * files.size() / slices, (i + 1) * files.size() / slices),
+                        library, log))
+                .flatMap(List::stream)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Parses the files in batches, each batch with its own builder, and keeps of each class only what the
+     * documents of an annotation read: the classes carrying a relevant annotation or declaring a method that does,
+     * with only those methods. The code blocks of the other methods are never built, and the builder and the
+     * contents of a batch can be collected once the batch is parsed, so that the memory held at once is that of a
+     * batch per worker of the fork-join pool, whatever the number of files.
+     *
+     * @param library the files declaring the annotations, kept in memory for every batch to resolve them
+     * @param relevant whether an annotation is read by the documents
+     */
+    public static List<SourceClass> parseInBatches(List<SourceFile> files, List<SourceFile> library, int batchSize,
+                                                   Predicate<SourceClass.Annotation> relevant, Log log) {
+        final int batches = (files.size() + batchSize - 1) / batchSize;
+        return IntStream.range(0, batches).parallel()
+                .mapToObj(i -> parseSlice(files.subList(i * batchSize, Math.min(files.size(), (i + 1) * batchSize)),
+                        library, SourceFile::readContent, relevant, log))
+                .flatMap(List::stream)
+                .collect(Collectors.toList());
+    }
+
+    private static List<SourceClass> parseSlice(List<SourceFile> files, List<SourceFile> library, Log log) {
+        return parseSlice(files, library, SourceFile::getContent, null, log);
+    }
+
+    /**
+     * @param relevant null to keep every class and method
+     */
+    private static List<SourceClass> parseSlice(List<SourceFile> files, List<SourceFile> library,
+                                                Function<SourceFile, String> reader,
+                                                Predicate<SourceClass.Annotation> relevant, Log log) {
+        final JavaProjectBuilder builder = new JavaProjectBuilder();
+        builder.setErrorHandler(e -> log.warn(e.getMessage()));
+        final Map<JavaSource, SourceFile> sources = new IdentityHashMap<>();
+        files.forEach(f -> sources.put(builder.addSource(new StringReader(reader.apply(f))), f));
+        library.stream()
+                .filter(f -> !files.contains(f))
+                .forEach(f -> builder.addSource(new StringReader(f.getContent())));
+        final List<SourceClass> classes = new ArrayList<>();
+        for (JavaClass c : builder.getClasses()) {
+            final SourceFile file = sources.get(c.getSource());
+            if (file == null) {
+                continue;
+            }
+            final List<SourceClass.Method> methods = new ArrayList<>();
+            for (JavaMethod m : c.getMethods(false)) {
+                final List<SourceClass.Annotation> annotations = annotations(m);
+                if (relevant == null || annotations.stream().anyMatch(relevant)) {
+                    methods.add(new SourceClass.Method(m.getCallSignature(), m.getCodeBlock(), m.getLineNumber(),
+                            annotations));
+                }
+            }
+            final List<SourceClass.Annotation> annotations = annotations(c);
+            if (relevant == null || !methods.isEmpty() || annotations.stream().anyMatch(relevant)) {
+                classes.add(new SourceClass(c.getFullyQualifiedName(), c.getName(), c.getPackageName(),
+                        c.getComment(), c.getLineNumber(), c.isEnum(), c.isInterface(), annotations, methods, file));
+            }
+        }
+        return classes;
+    }
+
+    private static List<SourceClass.Annotation> annotations(JavaAnnotatedElement element) {
+        final List<SourceClass.Annotation> annotations = new ArrayList<>();
+        for (JavaAnnotation annotation : element.getAnnotations()) {
+            final Map<String, String> parameters = new LinkedHashMap<>();
+            annotation.getNamedParameterMap().forEach((name, value) -> parameters.put(name, String.valueOf(value)));
+            annotations.add(new SourceClass.Annotation(annotation.getType().getFullyQualifiedName(), parameters));
+        }
+        return annotations;
+    }
+}
@@ -0,0 +1,112 @@
+package io.github.livingdocumentation.maven.commons;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.util.*;
+
+/**
+ * Size, modification time and content hash of each source file, keyed by path, so that the fingerprint of the
+ * sources only reads the files whose size or modification time changed since the previous build.
+ */
+public final class SourceStamps {
+
+    private static final int MAGIC = 0x4C445353;
+    private static final int VERSION = 1;
+
+    private static final class Stamp {
+        private final long size;
+        private final long lastModified;
+        private final long hash;
+
+        private Stamp(long size, long lastModified, long hash) {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.hash = hash;
+        }
+    }
+
+    private final Map<String, Stamp> previous;
+    private final Map<String, Stamp> current = new HashMap<>();
+
+    public SourceStamps() {
+        this(Collections.emptyMap());
+    }
+
+    private SourceStamps(Map<String, Stamp> previous) {
+        this.previous = previous;
+    }
+
+    /**
+     * @return the stamps stored in the file, empty if there is no such file
+     * @throws IOException if the file cannot be read or was written by another version
+     */
+    public static SourceStamps load(File file) throws IOException {
+        if (!file.isFile()) {
+            return new SourceStamps();
+        }
+        final Map<String, Stamp> stamps = new HashMap<>();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Unsupported source stamps " + file);
+            }
+            final int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                stamps.put(in.readUTF(), new Stamp(in.readLong(), in.readLong(), in.readLong()));
+            }
+        }
+        return new SourceStamps(stamps);
+    }
+
+    /**
+     * Saves the stamps of the files hashed since loaded, the other files being forgotten.
+     */
+    public void save(File file) throws IOException {
+        AtomicFiles.write(file, temporary -> {
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(current.size());
+                for (Map.Entry<String, Stamp> e : current.entrySet()) {
+                    out.writeUTF(e.getKey());
+                    out.writeLong(e.getValue().size);
+                    out.writeLong(e.getValue().lastModified);
+                    out.writeLong(e.getValue().hash);
+                }
+            }
+        });
+    }
+
+    /**
+     * @param keepContent whether the file keeps the content if read, for the parsing to come
+     * @return the hash of the content of the file, read only when its size or modification time changed
+     */
+    public long hash(SourceFile source, boolean keepContent) {
+        final File file = source.getFile();
+        final String path = file.getAbsolutePath();
+        final long size = file.length();
+        final long lastModified = file.lastModified();
+        final Stamp stamp = previous.get(path);
+        final long hash = stamp != null && stamp.size == size && stamp.lastModified == lastModified ? stamp.hash
+                : source.getHash(keepContent);
+        current.put(path, new Stamp(size, lastModified, hash));
+        return hash;
+    }
+
+    /**
+     * @return whether a file was hashed with another stamp, or left out, since loaded
+     */
+    public boolean isChanged() {
+        if (current.size() != previous.size()) {
+            return true;
+        }
+        for (Map.Entry<String, Stamp> e : current.entrySet()) {
+            final Stamp stamp = previous.get(e.getKey());
+            if (stamp == null || stamp.size != e.getValue().size || stamp.lastModified != e.getValue().lastModified
+                    || stamp.hash != e.getValue().hash) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,98 @@
+package io.github.livingdocumentation.maven.commons;
+
+import org.apache.maven.plugin.logging.Log;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Watches directory trees for changes, the directories created later included, and reports the changes of
+ * a burst of events at once: an IDE saving several files, or a compiler writing every class, leads to a single
+ * regeneration.
+ */
+public final class SourceWatcher implements Closeable {
+
+    private final WatchService service;
+    private final Log log;
+    private final Map<WatchKey, Path> directories = new HashMap<>();
+
+    /**
+     * @param roots the directories to watch, missing ones are ignored
+     */
+    public SourceWatcher(List<File> roots, Log log) throws IOException {
+        this.service = FileSystems.getDefault().newWatchService();
+        this.log = log;
+        for (File root : roots) {
+            if (root.isDirectory()) {
+                register(root.getAbsoluteFile().toPath());
+            }
+        }
+    }
+
+    private void register(Path root) throws IOException {
+        final List<Path> tree;
+        try (Stream<Path> walk = Files.walk(root)) {
+            tree = walk.filter(Files::isDirectory).collect(Collectors.toList());
+        }
+        for (Path directory : tree) {
+            directories.put(directory.register(service, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE), directory);
+        }
+    }
+
+    /**
+     * Waits for a change, then for the changes to stop for the quiet period.
+     *
+     * @return the files and directories changed, a watched directory itself when its events overflowed
+     */
+    public Set<Path> take(long quietMillis) throws InterruptedException {
+        final Set<Path> changes = new LinkedHashSet<>();
+        WatchKey key = service.take();
+        while (key != null) {
+            final Path directory = directories.get(key);
+            for (WatchEvent<?> event : key.pollEvents()) {
+                if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                    changes.add(directory);
+                    continue;
+                }
+                final Path path = directory.resolve((Path) event.context());
+                changes.add(path);
+                if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(path)) {
+                    try {
+                        register(path);
+                    } catch (IOException | UncheckedIOException e) {
+                        // deleted at once, or over the limit of watches: the other directories are still watched
+                        log.warn("Unable to watch " + path + ": " + e.getMessage());
+                    }
+                }
+            }
+            if (!key.reset()) {
+                directories.remove(key);
+            }
+            key = service.poll(quietMillis, TimeUnit.MILLISECONDS);
+        }
+        return changes;
+    }
+
+    @Override
+    public void close() throws IOException {
+        service.close();
+    }
+}
@@ -0,0 +1,149 @@
+package io.github.livingdocumentation.maven.commons;
+
+import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Template with numbered placeholders, <code>{0}</code>, <code>{1}</code>..., parsed once into literal
+ * and placeholder segments. The output is streamed, each placeholder being written by its own
+ * {@link Content} callback, so that a large content is never copied into the page.
+ */
+public final class Template {
+
+    private static final ConcurrentMap<String, Template> RESOURCES = new ConcurrentHashMap<>();
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Writes the value of a placeholder
+     */
+    public interface Content {
+        void writeTo(Writer out) throws IOException;
+    }
+
+    // literals[i] is followed by the placeholder placeholders[i], the last literal by nothing
+    private final String[] literals;
+    private final int[] placeholders;
+
+    private Template(String[] literals, int[] placeholders) {
+        this.literals = literals;
+        this.placeholders = placeholders;
+    }
+
+    /**
+     * @return the template of a resource of the plugin, read and parsed on first use then cached
+     */
+    public static Template of(String resource) {
+        return RESOURCES.computeIfAbsent(resource, r -> parse(read(r)));
+    }
+
+    public static Template parse(String text) {
+        final List<String> literals = new ArrayList<>();
+        final List<Integer> placeholders = new ArrayList<>();
+        int start = 0;
+        int open = text.indexOf('{');
+        while (open >= 0) {
+            int close = open + 1;
+            while (close < text.length() && Character.isDigit(text.charAt(close))) {
+                close++;
+            }
+            if (close > open + 1 && close < text.length() && text.charAt(close) == '}') {
+                literals.add(text.substring(start, open));
+                placeholders.add(Integer.valueOf(text.substring(open + 1, close)));
+                start = close + 1;
+            }
+            open = text.indexOf('{', close);
+        }
+        literals.add(text.substring(start));
+        return new Template(literals.toArray(new String[0]), placeholders.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    /**
+     * Reads a resource of the plugin, each line preceded by a line separator
+     */
+    static String read(String resource) {
+        final InputStream stream = Template.class.getResourceAsStream(resource);
+        if (stream == null) {
+            throw new IllegalArgumentException("No template " + resource);
+        }
+        final String lineSep = String.format("%n");
+        final StringBuilder buffer = new StringBuilder();
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(stream))) {
+            String str;
+            while ((str = in.readLine()) != null) {
+                buffer.append(lineSep);
+                buffer.append(str);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read the template " + resource, e);
+        }
+        return buffer.toString();
+    }
+
+    /**
+     * @return a content writing the text, null written as an empty string
+     */
+    public static Content text(String text) {
+        return out -> {
+            if (text != null) {
+                out.write(text);
+            }
+        };
+    }
+
+    /**
+     * Writes the template, the placeholder <code>{i}</code> being written by the i-th content. Placeholders
+     * without content are left as is.
+     */
+    public void render(Writer out, Content... contents) throws IOException {
+        for (int i = 0; i < placeholders.length; i++) {
+            out.write(literals[i]);
+            final int placeholder = placeholders[i];
+            if (placeholder < contents.length) {
+                contents[placeholder].writeTo(out);
+            } else {
+                out.write("{" + placeholder + "}");
+            }
+        }
+        out.write(literals[literals.length - 1]);
+    }
+
+    /**
+     * Writes the template into a file in UTF-8, followed by a line separator, through a buffered file channel
+     * to a temporary file renamed once complete.
+     */
+    public void write(File file, Content... contents) throws IOException {
+        AtomicFiles.write(file, temporary -> {
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE_NEW,
+                    StandardOpenOption.WRITE);
+                 Writer out = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8.newEncoder(),
+                         BUFFER_SIZE), BUFFER_SIZE)) {
+                render(out, contents);
+                out.write(System.lineSeparator());
+            }
+        });
+    }
+
+    /**
+     * @return the template with the texts in place of the placeholders
+     */
+    public String evaluate(String... texts) {
+        final StringWriter out = new StringWriter();
+        final Content[] contents = new Content[texts.length];
+        for (int i = 0; i < texts.length; i++) {
+            contents[i] = text(texts[i]);
+        }
+        try {
+            render(out, contents);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toString();
+    }
+}
@@ -0,0 +1,202 @@
+package io.github.livingdocumentation.maven.commons;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Counts of terms in an open-addressing hash table of primitive counts. Terms can be looked up by a
+ * range of chars, so that a {@code String} is only created the first time a term is seen.
+ * Hashes are those of {@link String#hashCode()}. Not thread-safe.
+ */
+public final class TermCounts {
+
+    private String[] terms;
+    private int[] hashes;
+    private int[] counts;
+    private int size;
+
+    public TermCounts() {
+        this(64);
+    }
+
+    public TermCounts(int expectedTerms) {
+        int capacity = 16;
+        while (capacity < expectedTerms * 2) {
+            capacity <<= 1;
+        }
+        terms = new String[capacity];
+        hashes = new int[capacity];
+        counts = new int[capacity];
+    }
+
+    /**
+     * @return the {@link String#hashCode()} of the chars
+     */
+    public static int hash(char[] chars, int offset, int length) {
+        int hash = 0;
+        for (int i = offset; i < offset + length; i++) {
+            hash = 31 * hash + chars[i];
+        }
+        return hash;
+    }
+
+    /**
+     * Adds one occurrence of the term made of the chars.
+     *
+     * @param hash the hash of the chars, see {@link #hash(char[], int, int)}
+     * @return the new count of the term
+     */
+    public int add(char[] chars, int offset, int length, int hash) {
+        int slot = slot(chars, offset, length, hash);
+        if (terms[slot] == null) {
+            slot = insert(slot, new String(chars, offset, length), hash);
+        }
+        return ++counts[slot];
+    }
+
+    /**
+     * Adds, or subtracts if negative, occurrences of a term.
+     *
+     * @return the new count of the term
+     */
+    public int add(String term, int count) {
+        final int hash = term.hashCode();
+        int slot = slot(term, hash);
+        if (terms[slot] == null) {
+            slot = insert(slot, term, hash);
+        }
+        return counts[slot] += count;
+    }
+
+    public void addAll(TermCounts other) {
+        other.forEach(this::add);
+    }
+
+    public boolean contains(char[] chars, int offset, int length, int hash) {
+        return terms[slot(chars, offset, length, hash)] != null;
+    }
+
+    public int get(String term) {
+        final int slot = slot(term, term.hashCode());
+        return terms[slot] == null ? 0 : counts[slot];
+    }
+
+    /**
+     * @return the highest count, 0 when empty
+     */
+    public int max() {
+        int max = 0;
+        for (int count : counts) {
+            max = Math.max(max, count);
+        }
+        return max;
+    }
+
+    /**
+     * @return the sum of the positive counts, i.e. the number of tokens counted
+     */
+    public long total() {
+        long total = 0;
+        for (int count : counts) {
+            total += Math.max(count, 0);
+        }
+        return total;
+    }
+
+    /**
+     * @return the number of terms with a positive count
+     */
+    public int size() {
+        int result = 0;
+        for (int i = 0; i < terms.length; i++) {
+            if (terms[i] != null && counts[i] > 0) {
+                result++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Visits every term with a positive count.
+     */
+    public void forEach(ObjIntConsumer<String> consumer) {
+        for (int i = 0; i < terms.length; i++) {
+            if (terms[i] != null && counts[i] > 0) {
+                consumer.accept(terms[i], counts[i]);
+            }
+        }
+    }
+
+    public Map<String, Integer> asMap() {
+        final Map<String, Integer> map = new HashMap<>();
+        forEach(map::put);
+        return map;
+    }
+
+    private int slot(char[] chars, int offset, int length, int hash) {
+        final int mask = terms.length - 1;
+        int slot = spread(hash) & mask;
+        while (terms[slot] != null && !(hashes[slot] == hash && equals(terms[slot], chars, offset, length))) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private int slot(String term, int hash) {
+        final int mask = terms.length - 1;
+        int slot = spread(hash) & mask;
+        while (terms[slot] != null && !(hashes[slot] == hash && terms[slot].equals(term))) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private int insert(int slot, String term, int hash) {
+        if (size + 1 > terms.length / 2) {
+            grow();
+            slot = slot(term, hash);
+        }
+        terms[slot] = term;
+        hashes[slot] = hash;
+        size++;
+        return slot;
+    }
+
+    private void grow() {
+        final String[] oldTerms = terms;
+        final int[] oldHashes = hashes;
+        final int[] oldCounts = counts;
+        terms = new String[oldTerms.length * 2];
+        hashes = new int[terms.length];
+        counts = new int[terms.length];
+        final int mask = terms.length - 1;
+        for (int i = 0; i < oldTerms.length; i++) {
+            if (oldTerms[i] != null) {
+                int slot = spread(oldHashes[i]) & mask;
+                while (terms[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                terms[slot] = oldTerms[i];
+                hashes[slot] = oldHashes[i];
+                counts[slot] = oldCounts[i];
+            }
+        }
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private static boolean equals(String term, char[] chars, int offset, int length) {
+        if (term.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (term.charAt(i) != chars[offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
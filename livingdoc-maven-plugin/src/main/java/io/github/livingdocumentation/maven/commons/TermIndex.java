@@ -0,0 +1,166 @@
+package io.github.livingdocumentation.maven.commons;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.util.*;
+
+/**
+ * Term counts of each scanned file, keyed by path, with the size, modification time and content hash the
+ * counts were computed from, and the total of all files. Stored in a compact binary file so that the next
+ * scan only tokenizes the files that changed.
+ */
+public final class TermIndex {
+
+    private static final int MAGIC = 0x4C445449;
+    private static final int VERSION = 1;
+
+    /**
+     * The counts of one file and the state of the file they were computed from
+     */
+    public static final class Entry {
+        private final long size;
+        private final long lastModified;
+        private final long hash;
+        private final TermCounts counts;
+
+        public Entry(long size, long lastModified, long hash, TermCounts counts) {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.hash = hash;
+            this.counts = counts;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        public long getLastModified() {
+            return lastModified;
+        }
+
+        public long getHash() {
+            return hash;
+        }
+
+        public TermCounts getCounts() {
+            return counts;
+        }
+    }
+
+    private final Map<String, Entry> entries = new HashMap<>();
+    private final TermCounts total = new TermCounts();
+
+    /**
+     * @return the index stored in the file, empty if there is no such file
+     * @throws IOException if the file cannot be read or was written by another version
+     */
+    public static TermIndex load(File file) throws IOException {
+        final TermIndex index = new TermIndex();
+        if (!file.isFile()) {
+            return index;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Unsupported term index " + file);
+            }
+            final String[] terms = new String[in.readInt()];
+            for (int i = 0; i < terms.length; i++) {
+                terms[i] = in.readUTF();
+            }
+            final int fileCount = in.readInt();
+            for (int i = 0; i < fileCount; i++) {
+                final String path = in.readUTF();
+                final long size = in.readLong();
+                final long lastModified = in.readLong();
+                final long hash = in.readLong();
+                final int termCount = in.readInt();
+                final TermCounts counts = new TermCounts(termCount);
+                for (int j = 0; j < termCount; j++) {
+                    counts.add(terms[in.readInt()], in.readInt());
+                }
+                index.put(path, new Entry(size, lastModified, hash, counts));
+            }
+        }
+        return index;
+    }
+
+    public void save(File file) throws IOException {
+        // every term of a file is in the total, which is used as the dictionary
+        final Map<String, Integer> dictionary = new HashMap<>();
+        final List<String> terms = new ArrayList<>();
+        total.forEach((term, count) -> {
+            dictionary.put(term, terms.size());
+            terms.add(term);
+        });
+        AtomicFiles.write(file, temporary -> {
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(terms.size());
+                for (String term : terms) {
+                    out.writeUTF(term);
+                }
+                out.writeInt(entries.size());
+                for (Map.Entry<String, Entry> e : entries.entrySet()) {
+                    final Entry entry = e.getValue();
+                    out.writeUTF(e.getKey());
+                    out.writeLong(entry.size);
+                    out.writeLong(entry.lastModified);
+                    out.writeLong(entry.hash);
+                    // pairs of term index and count
+                    final int[] pairs = new int[entry.counts.size() * 2];
+                    final int[] next = { 0 };
+                    entry.counts.forEach((term, count) -> {
+                        pairs[next[0]++] = dictionary.get(term);
+                        pairs[next[0]++] = count;
+                    });
+                    out.writeInt(pairs.length / 2);
+                    for (int value : pairs) {
+                        out.writeInt(value);
+                    }
+                }
+            }
+        });
+    }
+
+    public Entry get(String path) {
+        return entries.get(path);
+    }
+
+    /**
+     * Replaces the counts of a file, updating the total with the difference.
+     */
+    public void put(String path, Entry entry) {
+        final Entry previous = entries.put(path, entry);
+        if (previous != null) {
+            previous.counts.forEach((term, count) -> total.add(term, -count));
+        }
+        total.addAll(entry.counts);
+    }
+
+    /**
+     * Removes the files that are not in the given paths, subtracting their counts from the total.
+     */
+    public void retainAll(Set<String> paths) {
+        final Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+        while (it.hasNext()) {
+            final Map.Entry<String, Entry> entry = it.next();
+            if (!paths.contains(entry.getKey())) {
+                entry.getValue().counts.forEach((term, count) -> total.add(term, -count));
+                it.remove();
+            }
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return the counts of all the files
+     */
+    public TermCounts getTotal() {
+        return total;
+    }
+}
@@ -1,8 +1,7 @@
 import org.junit.Ignore;
 import org.junit.Test;
 
-import java.io.FileNotFoundException;
-import java.io.UnsupportedEncodingException;
+import java.io.IOException;
 import java.text.MessageFormat;
 
 import static io.github.livingdocumentation.maven.commons.SimpleTemplate.*;
@@ -10,7 +9,7 @@ import static io.github.livingdocumentation.maven.commons.SimpleTemplate.*;
 public class DummyTemplatingTest {
 
 	@Test
-	public void testMarkdownTemplate() throws UnsupportedEncodingException, FileNotFoundException {
+	public void testMarkdownTemplate() throws IOException {
 		final String template = readResource("/strapdown-template.html");
 
 		String title = "Living Glossary";
@@ -20,7 +19,7 @@ public class DummyTemplatingTest {
 	}
 
 	@Test
-	public void testGraphvizTemplate() throws UnsupportedEncodingException, FileNotFoundException {
+	public void testGraphvizTemplate() throws IOException {
 		final String template = readResource("/viz-template.html");
 
 		String title = "Living Diagram";
@@ -31,7 +30,7 @@ public class DummyTemplatingTest {
 
 	@Test
 	@Ignore
-	public void testWordCloudTemplate() throws UnsupportedEncodingException, FileNotFoundException {
+	public void testWordCloudTemplate() throws IOException {
 		final String template = readResource("/wordcloud-template.html");
 
 		String title = "Word Cloud";
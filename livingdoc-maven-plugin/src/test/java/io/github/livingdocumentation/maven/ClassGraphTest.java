@@ -0,0 +1,119 @@
+package io.github.livingdocumentation.maven;
+
+import io.github.livingdocumentation.maven.commons.ClassModel;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ClassGraphTest {
+
+	@Test
+	public void edges_are_kept_once_with_their_multiplicity_and_only_between_classes_of_the_diagram() {
+		final ClassIndex index = new ClassIndex("acme", "domain", new String[0], new String[0]);
+		add(index, new ClassModel("acme.domain.Trainer",
+				Arrays.asList("acme.domain.Pokemon", "acme.domain.Pokemon", "java.lang.String", "other.Money"),
+				Collections.emptyList()));
+		add(index, new ClassModel("acme.domain.Pokemon", Collections.emptyList(), Collections.emptyList()));
+
+		final ClassGraph graph = ClassGraph.of(index);
+
+		assertEquals(1, graph.getEdges().size());
+		final ClassGraph.Edge edge = graph.getEdges().iterator().next();
+		assertEquals("acme.domain.Trainer", edge.getFrom());
+		assertEquals("acme.domain.Pokemon", edge.getTo());
+		assertEquals(2, edge.getCount());
+	}
+
+	@Test
+	public void graph_within_the_budget_is_left_as_is() {
+		final ClassGraph graph = sample();
+		final Map<String, ClassGraph> drillDowns = new LinkedHashMap<>();
+
+		assertSame(graph, graph.collapse(10, 10, "diagram", drillDowns));
+		assertTrue(drillDowns.isEmpty());
+	}
+
+	@Test
+	public void biggest_packages_are_collapsed_first_into_nodes_linking_to_their_diagram() {
+		final ClassGraph graph = sample();
+		final Map<String, ClassGraph> drillDowns = new LinkedHashMap<>();
+
+		final ClassGraph collapsed = graph.collapse(4, 0, "diagram", drillDowns);
+
+		assertEquals(4, collapsed.getNodes().size());
+		final ClassGraph.Node order = collapsed.getNodes().stream().filter(n -> n.getLink() != null).findFirst().get();
+		assertEquals("order (3)", order.getLabel());
+		assertEquals("diagram-package-acme.domain.order", order.getLink());
+		assertEquals("hexagon", order.getGroup());
+		// the two edges from the order package to the customer are merged
+		assertTrue(collapsed.getEdges().stream()
+				.anyMatch(e -> e.getFrom().equals(order.getId()) && e.getTo().equals("acme.domain.customer.Customer")
+						&& e.getCount() == 2));
+
+		assertEquals(1, drillDowns.size());
+		final ClassGraph drillDown = drillDowns.get("diagram-package-acme.domain.order");
+		assertEquals(3, drillDown.getNodes().size());
+		assertEquals(2, drillDown.getEdges().size());
+		assertEquals("acme.domain.order", drillDown.getTitle());
+		// a drill down diagram does not collapse into itself
+		assertEquals(3, drillDown.collapse(1, 0, "diagram", new LinkedHashMap<>()).getNodes().size());
+	}
+
+	@Test
+	public void groups_are_collapsed_when_collapsing_packages_is_not_enough_and_absorb_their_packages() {
+		final ClassGraph graph = sample();
+		final Map<String, ClassGraph> drillDowns = new LinkedHashMap<>();
+
+		final ClassGraph collapsed = graph.collapse(2, 0, "diagram", drillDowns);
+
+		assertEquals(2, collapsed.getNodes().size());
+		// the packages absorbed by the group have no node linking to a diagram of their own
+		assertEquals(Collections.singleton("diagram-group-hexagon"), drillDowns.keySet());
+	}
+
+	@Test
+	public void collapsing_stops_as_soon_as_the_edges_fit_and_drill_downs_have_their_own_groups() {
+		final ClassGraph graph = sample();
+		final Map<String, ClassGraph> drillDowns = new LinkedHashMap<>();
+
+		final ClassGraph collapsed = graph.collapse(0, 4, "diagram", drillDowns);
+
+		assertEquals(4, collapsed.getNodes().size());
+		assertEquals(3, collapsed.getEdges().size());
+		assertEquals(Collections.singleton("diagram-package-acme.domain.order"), drillDowns.keySet());
+		drillDowns.get("diagram-package-acme.domain.order").addGroup("order", "Order");
+		assertEquals(1, graph.getGroups().size());
+		assertEquals(1, collapsed.getGroups().size());
+	}
+
+	private static ClassGraph sample() {
+		final ClassGraph graph = new ClassGraph("sample");
+		graph.addGroup("hexagon", "Core Domain");
+		graph.addNode("acme.domain.order.Order", "Order", "hexagon");
+		graph.addNode("acme.domain.order.OrderLine", "OrderLine", "hexagon");
+		graph.addNode("acme.domain.order.Orders", "Orders", "hexagon");
+		graph.addNode("acme.domain.customer.Customer", "Customer", "hexagon");
+		graph.addNode("acme.domain.customer.Address", "Address", "hexagon");
+		graph.addNode("acme.infra.JdbcOrders", "JdbcOrders", null);
+		graph.addEdge("acme.domain.order.Order", "acme.domain.order.OrderLine", ClassGraph.EdgeKind.ASSOCIATION, 1);
+		graph.addEdge("acme.domain.order.Order", "acme.domain.customer.Customer", ClassGraph.EdgeKind.ASSOCIATION, 1);
+		graph.addEdge("acme.domain.order.OrderLine", "acme.domain.customer.Customer",
+				ClassGraph.EdgeKind.ASSOCIATION, 1);
+		graph.addEdge("acme.domain.order.Orders", "acme.infra.JdbcOrders", ClassGraph.EdgeKind.IMPLEMENTS, 1);
+		graph.addEdge("acme.domain.order.Orders", "acme.domain.order.Order", ClassGraph.EdgeKind.ASSOCIATION, 1);
+		graph.addEdge("acme.domain.customer.Customer", "acme.domain.customer.Address",
+				ClassGraph.EdgeKind.ASSOCIATION, 1);
+		return graph;
+	}
+
+	private static void add(ClassIndex index, ClassModel clazz) {
+		index.add(clazz.getPackageName(), clazz.getSimpleName(), () -> clazz);
+	}
+}
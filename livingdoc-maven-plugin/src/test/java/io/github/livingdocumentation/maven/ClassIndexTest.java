@@ -0,0 +1,38 @@
+package io.github.livingdocumentation.maven;
+
+import io.github.livingdocumentation.maven.ClassIndex.Category;
+import io.github.livingdocumentation.maven.commons.ClassModel;
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+
+public class ClassIndexTest {
+
+	private final ClassIndex index = new ClassIndex("com.acme", "domain",
+			new String[] { "infra", "web.api" }, new String[] { ".*\\.internal" });
+
+	@Test
+	public void classifies_by_package() {
+		assertEquals(Category.CORE, add("com.acme.domain", "Pokemon"));
+		assertEquals(Category.CLUSTER, add("com.acme.infra", "JdbcRepository"));
+		assertEquals(Category.CLUSTER, add("com.acme.web.api", "Controller"));
+		assertEquals(Category.OTHER, add("com.acme.app", "Service"));
+		assertEquals(Category.OTHER, add("com.acme.api", "Client"));
+		assertEquals(Category.EXCLUDED, add("com.acme.domain.internal", "Helper"));
+		assertEquals(Category.EXCLUDED, add("com.acme.domain", "PokemonTest"));
+		assertEquals(Category.EXCLUDED, add("com.acme.domain", "PokemonIT"));
+		assertEquals(Category.EXCLUDED, add("org.other", "Thing"));
+
+		assertEquals(1, index.getCore().size());
+		assertEquals(1, index.getClusters().get("infra").size());
+		assertEquals(1, index.getClusters().get("web.api").size());
+		assertEquals(2, index.getOthers().size());
+	}
+
+	private Category add(String packageName, String simpleName) {
+		return index.add(packageName, simpleName, () -> new ClassModel(packageName + "." + simpleName,
+				Collections.emptyList(), Collections.emptyList()));
+	}
+}
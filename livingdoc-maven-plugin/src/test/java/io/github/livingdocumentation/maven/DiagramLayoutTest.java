@@ -0,0 +1,91 @@
+package io.github.livingdocumentation.maven;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import static io.github.livingdocumentation.maven.ClassGraph.EdgeKind.ASSOCIATION;
+import static io.github.livingdocumentation.maven.ClassGraph.EdgeKind.IMPLEMENTS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class DiagramLayoutTest {
+
+	@Test
+	public void associations_go_from_left_to_right() {
+		final DiagramLayout layout = sample().layout();
+
+		assertTrue(x(layout, "domain.Pokemon") < x(layout, "domain.Trainer"));
+		assertTrue(x(layout, "domain.Trainer") < x(layout, "domain.Badge"));
+		assertTrue(x(layout, "domain.Repository") < x(layout, "infra.JdbcRepository"));
+	}
+
+	@Test
+	public void cycles_are_laid_out_too() {
+		final DiagramLayout layout = new DiagramLayout("cycle");
+		layout.addNode("a", "A", null);
+		layout.addNode("b", "B", null);
+		layout.addNode("c", "C", null);
+		layout.addEdge("a", "b", ASSOCIATION, 1);
+		layout.addEdge("b", "c", ASSOCIATION, 1);
+		layout.addEdge("c", "a", ASSOCIATION, 1);
+		layout.layout();
+
+		assertNotEquals(x(layout, "a"), x(layout, "b"), 0);
+		assertNotEquals(x(layout, "b"), x(layout, "c"), 0);
+	}
+
+	@Test
+	public void groups_get_their_own_bands() {
+		final DiagramLayout layout = sample().layout();
+
+		// the core domain lies in the middle, between the two clusters
+		assertTrue(y(layout, "app.Main") < y(layout, "domain.Pokemon"));
+		assertTrue(y(layout, "domain.Badge") < y(layout, "infra.JdbcRepository"));
+	}
+
+	@Test
+	public void svg_is_the_same_on_every_run() throws IOException {
+		final String svg = svg(sample().layout());
+
+		assertEquals(svg, svg(sample().layout()));
+		assertTrue(svg.contains("<polygon"));
+		assertTrue(svg.contains(">Core Domain</text>"));
+	}
+
+	private static DiagramLayout sample() {
+		final DiagramLayout layout = new DiagramLayout("sample");
+		layout.addGroup("hexagon", "Core Domain", true);
+		layout.addGroup("app", "app", false);
+		layout.addGroup("infra", "infra", false);
+		layout.addNode("domain.Pokemon", "Pokemon", "hexagon");
+		layout.addNode("domain.Trainer", "Trainer", "hexagon");
+		layout.addNode("domain.Badge", "Badge", "hexagon");
+		layout.addNode("domain.Repository", "Repository", "hexagon");
+		layout.addNode("app.Main", "Main", "app");
+		layout.addNode("infra.JdbcRepository", "JdbcRepository", "infra");
+		layout.addEdge("domain.Pokemon", "domain.Trainer", ASSOCIATION, 1);
+		layout.addEdge("domain.Trainer", "domain.Badge", ASSOCIATION, 1);
+		layout.addEdge("domain.Trainer", "domain.Badge", ASSOCIATION, 1);
+		layout.addEdge("domain.Trainer", "java.lang.String", ASSOCIATION, 1);
+		layout.addEdge("app.Main", "domain.Repository", ASSOCIATION, 1);
+		layout.addEdge("domain.Repository", "infra.JdbcRepository", IMPLEMENTS, 1);
+		return layout;
+	}
+
+	private static double x(DiagramLayout layout, String id) {
+		return layout.getCenter(id)[0];
+	}
+
+	private static double y(DiagramLayout layout, String id) {
+		return layout.getCenter(id)[1];
+	}
+
+	private static String svg(DiagramLayout layout) throws IOException {
+		final StringWriter out = new StringWriter();
+		layout.writeSvg(out);
+		return out.toString();
+	}
+}
@@ -0,0 +1,51 @@
+package io.github.livingdocumentation.maven;
+
+import io.github.livingdocumentation.maven.commons.SourceModel;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertTrue;
+
+public class GuidedTourRendererTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void steps_of_an_aggregate_link_to_the_sources_of_their_module() throws Exception {
+        final File root = folder.getRoot();
+        write("pokedex/src/main/java/acme/pokedex/Pokemon.java", "package acme.pokedex;\n"
+                + "@acme.GuidedTour(name = \"Pokedex\", description = \"The pets\", rank = 1)\n"
+                + "public class Pokemon {}");
+        write("arena/src/main/java/acme/arena/Fight.java", "package acme.arena;\n"
+                + "public class Fight {\n"
+                + "    @acme.GuidedTour(name = \"Pokedex\", description = \"The fights\", rank = 2)\n"
+                + "    public void start() {}\n"
+                + "}");
+        final SourceModel model = SourceModel.scan(Arrays.asList(new File(root, "pokedex/src/main/java").getPath(),
+                new File(root, "arena/src/main/java").getPath()), new SystemStreamLog());
+        final File outputDirectory = new File(root, "docs");
+
+        new GuidedTourRenderer.Builder("acme", "acme.GuidedTour", outputDirectory)
+                .repositoryLink("http://example.org/repo").sourceRoot(root).build().render(model);
+
+        final String tour = new String(Files.readAllBytes(new File(outputDirectory, "Pokedex.html").toPath()),
+                StandardCharsets.UTF_8);
+        assertTrue(tour, tour.contains("(http://example.org/repo/pokedex/src/main/java/acme/pokedex/Pokemon.java#L"));
+        assertTrue(tour, tour.contains("(http://example.org/repo/arena/src/main/java/acme/arena/Fight.java#L"));
+    }
+
+    private void write(String path, String content) throws IOException {
+        final File file = new File(folder.getRoot(), path);
+        file.getParentFile().mkdirs();
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,85 @@
+package io.github.livingdocumentation.maven;
+
+import io.github.livingdocumentation.maven.commons.Fingerprint;
+import io.github.livingdocumentation.maven.commons.Metrics;
+import io.github.livingdocumentation.maven.commons.SourceModel;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class UpToDateRendererTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void renders_again_only_when_the_inputs_change_or_the_output_is_missing() throws Exception {
+        final CountingRenderer renderer = new CountingRenderer(new File(folder.getRoot(), "out.html"));
+        final Renderer upToDate = new UpToDateRenderer(renderer, folder.getRoot(), new SystemStreamLog());
+
+        upToDate.render(null);
+        upToDate.render(null);
+        assertEquals(1, renderer.renderings);
+        assertEquals(Long.valueOf(1), renderer.metrics.getCounters().get("upToDate"));
+
+        renderer.parameter = "changed";
+        upToDate.render(null);
+        upToDate.render(null);
+        assertEquals(2, renderer.renderings);
+
+        Files.delete(renderer.output.toPath());
+        upToDate.render(null);
+        assertEquals(3, renderer.renderings);
+    }
+
+    private static class CountingRenderer implements Renderer {
+        private final File output;
+        private String parameter = "initial";
+        private int renderings;
+        private final Metrics metrics = new Metrics("counting");
+
+        private CountingRenderer(File output) {
+            this.output = output;
+        }
+
+        @Override
+        public String getName() {
+            return "counting";
+        }
+
+        @Override
+        public void render(SourceModel model) throws MojoExecutionException {
+            renderings++;
+            try {
+                Files.write(output.toPath(), parameter.getBytes());
+            } catch (IOException e) {
+                throw new MojoExecutionException("Unable to write", e);
+            }
+        }
+
+        @Override
+        public void fingerprint(SourceModel model, Fingerprint fingerprint) {
+            fingerprint.put("parameter", parameter);
+        }
+
+        @Override
+        public List<File> getOutputFiles() {
+            return Collections.singletonList(output);
+        }
+
+        @Override
+        public Metrics getMetrics() {
+            return metrics;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package io.github.livingdocumentation.maven;
+
+import io.github.livingdocumentation.maven.commons.TermCounts;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class WordCloudLayoutTest {
+
+	@Test
+	public void words_are_placed_inside_the_cloud_without_overlapping() {
+		final TermCounts bag = terms(500);
+		final List<WordCloudLayout.Word> words = new WordCloudLayout(600, 600).layout(bag, 50. / bag.max());
+
+		assertFalse(words.isEmpty());
+		assertEquals("term0", words.get(0).getText());
+		for (int i = 0; i < words.size(); i++) {
+			final WordCloudLayout.Word a = words.get(i);
+			assertTrue(a.getX() - a.getWidth() / 2 >= 0 && a.getX() + a.getWidth() / 2 <= 600);
+			assertTrue(a.getY() - a.getHeight() / 2 >= 0 && a.getY() + a.getHeight() / 2 <= 600);
+			for (int j = i + 1; j < words.size(); j++) {
+				final WordCloudLayout.Word b = words.get(j);
+				final boolean overlap = Math.abs(a.getX() - b.getX()) < (a.getWidth() + b.getWidth()) / 2
+						&& Math.abs(a.getY() - b.getY()) < (a.getHeight() + b.getHeight()) / 2;
+				assertFalse(a.getText() + " overlaps " + b.getText(), overlap);
+			}
+		}
+	}
+
+	@Test
+	public void layout_is_the_same_on_every_run() throws IOException {
+		final TermCounts bag = terms(200);
+		assertEquals(svg(bag), svg(bag));
+	}
+
+	private static String svg(TermCounts bag) throws IOException {
+		final WordCloudLayout layout = new WordCloudLayout(600, 600);
+		final StringWriter out = new StringWriter();
+		layout.writeSvg(layout.layout(bag, 50. / bag.max()), out);
+		return out.toString();
+	}
+
+	private static TermCounts terms(int count) {
+		final TermCounts bag = new TermCounts();
+		for (int i = 0; i < count; i++) {
+			bag.add("term" + i, count - i);
+		}
+		return bag;
+	}
+}
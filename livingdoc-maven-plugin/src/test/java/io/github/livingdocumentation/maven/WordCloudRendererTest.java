@@ -0,0 +1,117 @@
+package io.github.livingdocumentation.maven;
+
+import io.github.livingdocumentation.maven.commons.SourceFile;
+import io.github.livingdocumentation.maven.commons.TermCounts;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+public class WordCloudRendererTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void parallel_scan_counts_like_sequential_scan() throws IOException {
+		final List<SourceFile> files = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			final String content = "package acme;\n/** A Pokemon with " + i + " hp */\npublic class Pokemon" + (i % 7)
+					+ " { private Trainer trainer; private int hp = " + i + "; Pokemon fight(Pokemon other) {} }";
+			final File file = folder.newFile("Pokemon" + i + ".java");
+			Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+			files.add(new SourceFile(folder.getRoot(), file.getName(), StandardCharsets.UTF_8));
+		}
+
+		final WordCloudRenderer sequential = renderer(false);
+		sequential.scan(files);
+		final WordCloudRenderer parallel = renderer(true);
+		parallel.scan(files);
+
+		assertEquals(sequential.getBag().asMap(), parallel.getBag().asMap());
+		assertEquals(sequential.getMax(), parallel.getMax());
+		assertEquals(300, sequential.getMax());
+	}
+
+	@Test
+	public void incremental_scan_counts_like_full_scan() throws IOException {
+		final File index = new File(folder.getRoot(), "cache/wordcloud.idx");
+		final List<SourceFile> files = new ArrayList<>();
+		files.add(write("Pokemon.java", "class Pokemon { Trainer trainer; }"));
+		files.add(write("Trainer.java", "class Trainer { Pokemon pokemon; Badge badge; }"));
+		files.add(write("Badge.java", "class Badge { }"));
+		incremental(index).scan(files);
+
+		files.set(0, write("Pokemon.java", "class Pokemon { Trainer trainer; Evolution evolution; }"));
+		files.remove(2);
+		files.add(write("Evolution.java", "class Evolution { Pokemon pokemon; }"));
+		final WordCloudRenderer incremental = incremental(index);
+		incremental.scan(files);
+		final WordCloudRenderer full = renderer(false);
+		full.scan(files);
+
+		assertEquals(full.getBag().asMap(), incremental.getBag().asMap());
+		assertEquals(full.getMax(), incremental.getMax());
+		// the deleted Badge.java is no longer counted
+		assertEquals(2, incremental.getBag().get("badge"));
+	}
+
+	@Test
+	public void parallel_incremental_scan_counts_like_full_scan() throws IOException {
+		final List<SourceFile> files = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			files.add(write("Trainer" + i + ".java", "class Trainer" + (i % 5) + " { Pokemon pokemon" + i
+					+ "; Badge badge; }"));
+		}
+		final WordCloudRenderer incremental = new WordCloudRenderer.Builder(new SystemStreamLog(), folder.getRoot())
+				.indexFile(new File(folder.getRoot(), "cache/wordcloud.idx")).parallel(true).build();
+		incremental.scan(files);
+		final WordCloudRenderer full = renderer(false);
+		full.scan(files);
+
+		assertEquals(full.getBag().asMap(), incremental.getBag().asMap());
+		// "Badge badge" in every file
+		assertEquals(200, incremental.getMax());
+	}
+
+	@Test
+	public void counts_meaningful_lower_cased_words() {
+		final String content = "@Glossary public class Pokemon { Pokemon pokemon; POKEMON evolve(int level2) {"
+				+ " return new Pokemon(\"what's\", 42, x); } } // it's the 1st pokemon";
+		final TermCounts counts = new TermCounts();
+		WordCloudRenderer.filter(content.toCharArray(), content.length(), counts);
+
+		final Map<String, Integer> expected = new HashMap<>();
+		expected.put("pokemon", 6);
+		expected.put("evolve", 1);
+		expected.put("level2", 1);
+		expected.put("it's", 1);
+		assertEquals(expected, counts.asMap());
+		assertEquals(6, counts.max());
+	}
+
+	private SourceFile write(String name, String content) throws IOException {
+		final File file = new File(folder.getRoot(), name);
+		Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+		return new SourceFile(folder.getRoot(), name, StandardCharsets.UTF_8);
+	}
+
+	private WordCloudRenderer incremental(File index) {
+		return new WordCloudRenderer.Builder(new SystemStreamLog(), folder.getRoot()).indexFile(index).build();
+	}
+
+	private WordCloudRenderer renderer(boolean parallel) {
+		return new WordCloudRenderer.Builder(new SystemStreamLog(), folder.getRoot()).parallel(parallel).build();
+	}
+}
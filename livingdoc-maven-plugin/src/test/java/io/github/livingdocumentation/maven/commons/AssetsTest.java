@@ -0,0 +1,74 @@
+package io.github.livingdocumentation.maven.commons;
+
+import com.google.common.io.ByteStreams;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class AssetsTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void assets_are_written_once_under_their_content_hash_with_a_gzip_copy() throws IOException {
+		final File shared = folder.newFolder("site", "lib");
+		final File page = new File(folder.newFolder("site", "module"), "tour.html");
+
+		final Metrics metrics = new Metrics("tour");
+		final String link = new Assets(shared, metrics).link("d3.layout.cloud.js", page);
+		assertTrue(link, link.matches("\\.\\./lib/d3\\.layout\\.cloud\\.[0-9a-f]{10}\\.js"));
+
+		final File asset = new File(page.getParentFile(), link);
+		final File gzip = new File(asset.getPath() + ".gz");
+		try (InputStream in = new GZIPInputStream(new FileInputStream(gzip))) {
+			assertArrayEquals(Files.readAllBytes(asset.toPath()), ByteStreams.toByteArray(in));
+		}
+		assertEquals(Long.valueOf(1), metrics.getCounters().get("assetsWritten"));
+
+		final Metrics again = new Metrics("wordcloud");
+		final Assets assets = new Assets(shared, again);
+		assertEquals(link, assets.link("d3.layout.cloud.js", page));
+		assertNull(again.getCounters().get("assetsWritten"));
+		assertEquals(2, assets.getFiles().size());
+	}
+
+	@Test
+	public void scripts_lose_indentation_and_comments_but_keep_lines_strings_and_licenses() {
+		final String source = "/*! keep me */\n"
+				+ "// a comment\n"
+				+ "function f(a) {\n"
+				+ "    /* a block\n"
+				+ "       comment */ var s = \"  // not a comment\";\n"
+				+ "\n"
+				+ "    return a / 2 // trailing comments are kept\n"
+				+ "}\n";
+		assertEquals("/*! keep me */\n"
+				+ "function f(a) {\n"
+				+ "var s = \"  // not a comment\";\n"
+				+ "return a / 2 // trailing comments are kept\n"
+				+ "}\n", Assets.minifyJs(source));
+	}
+
+	@Test
+	public void stylesheets_lose_comments_and_spaces_around_braces() {
+		final String source = "/* theme */\n"
+				+ "a:hover, .nav > li  a {\n"
+				+ "  content: \"  {  }  \";\n"
+				+ "  margin: 0 auto ;\n"
+				+ "}\n";
+		assertEquals("a:hover,.nav > li a{content: \"  {  }  \";margin: 0 auto;}", Assets.minifyCss(source));
+	}
+}
@@ -0,0 +1,71 @@
+package io.github.livingdocumentation.maven.commons;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class AtomicFilesTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void a_failed_write_leaves_the_previous_file_and_no_temporary_file() throws IOException {
+		final File file = new File(folder.getRoot(), "docs/glossary.html");
+		AtomicFiles.write(file, "first".getBytes(StandardCharsets.UTF_8));
+		try {
+			AtomicFiles.write(file, temporary -> {
+				Files.write(temporary, "partial".getBytes(StandardCharsets.UTF_8));
+				throw new IOException("disk full");
+			});
+			fail();
+		} catch (IOException e) {
+			assertEquals("disk full", e.getMessage());
+		}
+		assertEquals("first", new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8));
+		assertArrayEquals(new String[] { "glossary.html" }, file.getParentFile().list());
+	}
+
+	@Test
+	public void concurrent_writers_of_the_same_file_leave_one_whole_content() throws Exception {
+		final File file = new File(folder.getRoot(), "lib/d3.js");
+		final ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			final List<Future<?>> writes = new ArrayList<>();
+			for (int i = 0; i < 16; i++) {
+				final byte[] content = new byte[64 * 1024];
+				Arrays.fill(content, (byte) i);
+				writes.add(executor.submit(() -> {
+					AtomicFiles.write(file, content);
+					return null;
+				}));
+			}
+			for (Future<?> write : writes) {
+				write.get();
+			}
+		} finally {
+			executor.shutdown();
+		}
+		final byte[] written = Files.readAllBytes(file.toPath());
+		assertEquals(64 * 1024, written.length);
+		for (byte b : written) {
+			assertEquals(written[0], b);
+		}
+		assertArrayEquals(new String[] { "d3.js" }, file.getParentFile().list());
+	}
+}
@@ -0,0 +1,61 @@
+package io.github.livingdocumentation.maven.commons;
+
+import com.google.common.io.ByteStreams;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.Assert.assertEquals;
+
+public class ClassFileParserTest {
+
+	@SuppressWarnings("unused")
+	private static class Sample implements Serializable, Comparable<Sample> {
+		private static final long BIG = 42L;
+		private static final double PI = 3.14;
+		private static final String GREETING = "héllo";
+		private int count;
+		private String name;
+		private List<String> names;
+		private Sample[] children;
+		private int[] values;
+		private long[][] matrix;
+
+		@Override
+		public int compareTo(Sample o) {
+			return 0;
+		}
+	}
+
+	@Test
+	public void reads_the_same_model_as_reflection() throws IOException {
+		assertSameModel(Sample.class);
+		assertSameModel(HashMap.class);
+		assertSameModel(ConcurrentHashMap.class);
+	}
+
+	@Test(expected = IOException.class)
+	public void rejects_non_class_files() throws IOException {
+		ClassFileParser.parse(new byte[] { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10 });
+	}
+
+	private static void assertSameModel(Class<?> clazz) throws IOException {
+		final ClassModel expected = ClassModel.of(clazz);
+		final ClassModel actual = ClassFileParser.parse(bytes(clazz));
+		assertEquals(expected.getName(), actual.getName());
+		assertEquals(expected.getInterfaces(), actual.getInterfaces());
+		assertEquals(expected.getFieldTypes(), actual.getFieldTypes());
+	}
+
+	private static byte[] bytes(Class<?> clazz) throws IOException {
+		final String resource = "/" + clazz.getName().replace('.', '/') + ".class";
+		try (InputStream in = clazz.getResourceAsStream(resource)) {
+			return ByteStreams.toByteArray(in);
+		}
+	}
+}
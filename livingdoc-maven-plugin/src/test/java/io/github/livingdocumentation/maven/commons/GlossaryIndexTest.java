@@ -0,0 +1,55 @@
+package io.github.livingdocumentation.maven.commons;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class GlossaryIndexTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void words_are_split_at_camel_case_and_punctuation_without_tags_and_stopwords() {
+		assertEquals(Arrays.asList("pokemontrainer", "pokemon", "trainer", "owns", "pokémons", "lot"),
+				new ArrayList<>(GlossaryIndex.words("PokemonTrainer", "Owns <i>the</i> <b>pokémons</b>, a lot")));
+	}
+
+	@Test
+	public void shards_hold_their_entries_and_the_shards_of_a_previous_index_are_deleted() throws IOException {
+		final File directory = folder.newFolder("glossary-index");
+		Files.write(new File(directory, "x.js").toPath(), "stale".getBytes(StandardCharsets.UTF_8));
+
+		final GlossaryIndex index = new GlossaryIndex();
+		index.add("Pokemon", "A little pet", "glossary-P.html#Pokemon");
+		index.add("Trainer", "Trains \"pokemons\"", "glossary-T.html#Trainer");
+		final List<File> shards = index.write(directory);
+
+		final String[] files = directory.list();
+		Arrays.sort(files);
+		assertArrayEquals(new String[] { "l.js", "p.js", "t.js" }, files);
+		assertEquals(3, shards.size());
+		assertEquals(6, index.size());
+		final String t = new String(Files.readAllBytes(new File(directory, "t.js").toPath()), StandardCharsets.UTF_8);
+		assertEquals("glossaryShard(\"t\", {\"entries\": [\n"
+				+ "[\"Trainer\", \"glossary-T.html#Trainer\"]],\n"
+				+ "\"words\": {\n"
+				+ "\"trainer\": [0],\n"
+				+ "\"trains\": [0]}});\n", t);
+		final String p = new String(Files.readAllBytes(new File(directory, "p.js").toPath()), StandardCharsets.UTF_8);
+		assertTrue(p.contains("\"pokemons\": [1]"));
+		assertTrue(p.contains("\"pokemon\": [0]"));
+	}
+}
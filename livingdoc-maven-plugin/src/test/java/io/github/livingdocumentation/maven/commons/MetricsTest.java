@@ -0,0 +1,65 @@
+package io.github.livingdocumentation.maven.commons;
+
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class MetricsTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void phases_and_counters_accumulate_and_are_added_with_a_prefix() {
+		final Metrics renderer = new Metrics("glossary");
+		renderer.time("parse", () -> "done");
+		renderer.time("parse", () -> "done");
+		renderer.count("classesParsed", 2).count("classesParsed", 3);
+
+		final Metrics goal = Metrics.start("all").count("filesScanned", 7).addAll("glossary.", renderer);
+
+		assertEquals(1, goal.getPhases().size());
+		assertTrue(goal.getPhases().containsKey("glossary.parse"));
+		assertEquals(Long.valueOf(5), goal.getCounters().get("glossary.classesParsed"));
+		assertEquals(Long.valueOf(7), goal.getCounters().get("filesScanned"));
+	}
+
+	@Test
+	public void report_combines_the_metrics_of_every_goal_run() throws IOException {
+		final File cache = folder.newFolder("cache");
+		final File report = new File(folder.getRoot(), "livingdoc-metrics.json");
+
+		Metrics.start("wordcloud").count("tokens", 42).report(cache, report, new SystemStreamLog());
+		Metrics.start("glossary").count("entries", 3).report(cache, report, new SystemStreamLog());
+
+		final String json = new String(Files.readAllBytes(report.toPath()), StandardCharsets.UTF_8);
+		assertTrue(json.startsWith("{\n  \"glossary\": {"));
+		assertTrue(json.contains("\"wordcloud\": {"));
+		assertTrue(json.contains("\"tokens\": 42"));
+		assertTrue(json.contains("\"peakHeapDeltaBytes\": "));
+	}
+
+	@Test
+	public void starting_a_goal_leaves_the_peaks_of_the_memory_pools_of_the_other_goals() {
+		final List<MemoryPoolMXBean> pools = ManagementFactory.getMemoryPoolMXBeans();
+		final long[] peaks = pools.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).toArray();
+
+		Metrics.start("glossary");
+
+		for (int i = 0; i < peaks.length; i++) {
+			assertTrue(pools.get(i).getName(), pools.get(i).getPeakUsage().getUsed() >= peaks[i]);
+		}
+	}
+}
@@ -0,0 +1,72 @@
+package io.github.livingdocumentation.maven.commons;
+
+import com.google.common.io.ByteStreams;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PreviewServerTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void pages_are_served_from_memory_and_reloaded_on_publish() throws Exception {
+		final File page = write("glossary.html", "<html><body>first</body></html>");
+		write("lib/d3.js", "var d3;");
+		try (PreviewServer server = PreviewServer.start(folder.getRoot(), 0)) {
+			server.publish(Collections.singletonList(page));
+			write("glossary.html", "<html><body>changed on disk only</body></html>");
+
+			final String html = get(server, "/glossary.html");
+			assertTrue(html.startsWith("<html><body>first<script>"));
+			assertTrue(html.contains("})(1);</script>"));
+			assertEquals("var d3;", get(server, "/lib/d3.js"));
+			assertTrue(get(server, "/").contains("<a href=\"/glossary.html\">"));
+
+			final CompletableFuture<String> reload = CompletableFuture.supplyAsync(
+					() -> get(server, "/livereload?version=1"));
+			// the same content again is no new version
+			assertFalse(server.publish(Collections.singletonList(write("glossary.html",
+					"<html><body>first</body></html>"))));
+			assertTrue(server.publish(Collections.singletonList(write("glossary.html",
+					"<html><body>second</body></html>"))));
+			assertEquals("2", reload.get(5, TimeUnit.SECONDS));
+			assertTrue(get(server, "/glossary.html").contains("second"));
+		}
+	}
+
+	private File write(String path, String content) throws IOException {
+		final File file = new File(folder.getRoot(), path);
+		file.getParentFile().mkdirs();
+		Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+		return file;
+	}
+
+	private static String get(PreviewServer server, String path) {
+		try {
+			final HttpURLConnection connection = (HttpURLConnection) new URL("http://127.0.0.1:" + server.getPort()
+					+ path).openConnection();
+			try (InputStream in = connection.getInputStream()) {
+				return new String(ByteStreams.toByteArray(in), StandardCharsets.UTF_8);
+			}
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
@@ -0,0 +1,84 @@
+package io.github.livingdocumentation.maven.commons;
+
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+
+public class SourceModelTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void scan_under_a_package_prefix_skips_the_other_packages() throws IOException {
+		write("com/acme/domain/Pokemon.java", "package com.acme.domain; public class Pokemon {}");
+		write("com/acme/Main.java", "package com.acme; public class Main {}");
+		write("com/acmex/Other.java", "package com.acmex; public class Other {}");
+		write("org/other/Library.java", "package org.other; public class Library {}");
+
+		final SourceModel model = SourceModel.scan(Collections.singletonList(folder.getRoot().getPath()),
+				SourceModel.javaFilesUnder("com.acme"), new String[0], new SystemStreamLog());
+
+		assertEquals(3, model.getFiles().size());
+	}
+
+	@Test
+	public void only_the_files_mentioning_the_annotation_are_parsed() throws IOException {
+		write("com/acme/annotations/CoreConcept.java", "package com.acme.annotations; public @interface CoreConcept {}");
+		write("com/acme/domain/Pokemon.java", "package com.acme.domain;\nimport com.acme.annotations.*;\n"
+				+ "/** A pokemon */ @CoreConcept public class Pokemon {}");
+		write("com/acme/domain/Trainer.java", "package com.acme.domain; public class Trainer {}");
+		write("org/other/Library.java", "package org.other; @CoreConcept public class Library {}");
+
+		final SourceModel model = SourceModel.scan(Collections.singletonList(folder.getRoot().getPath()),
+				new SystemStreamLog());
+
+		assertEquals(Collections.singletonList("Pokemon.java"), names(model.candidates("com.acme.domain",
+				"com.acme.annotations.CoreConcept")));
+		assertEquals(3, model.candidates(null, "CoreConcept").size());
+		assertEquals(4, model.candidates(null, null).size());
+		// the annotation is resolved from its own source file, which is parsed too
+		assertEquals("com.acme.annotations.CoreConcept", model.getClasses("com.acme", "CoreConcept").stream()
+				.filter(c -> c.getName().equals("Pokemon")).findFirst().get().getAnnotations().get(0).getType());
+	}
+
+	@Test
+	public void batches_keep_neither_the_contents_nor_the_classes() throws IOException {
+		write("com/acme/annotations/CoreConcept.java", "package com.acme.annotations; public @interface CoreConcept {}");
+		write("com/acme/domain/Pokemon.java", "package com.acme.domain;\nimport com.acme.annotations.*;\n"
+				+ "/** A pokemon */ @CoreConcept public class Pokemon {}");
+		write("com/acme/domain/Trainer.java", "package com.acme.domain; /** CoreConcept */ public class Trainer {}");
+
+		final SourceModel model = SourceModel.scan(Collections.singletonList(folder.getRoot().getPath()),
+				new SystemStreamLog());
+
+		assertEquals(Collections.singletonList("Pokemon"), model.getClassesInBatches(null, "CoreConcept", 1,
+				a -> a.getType().endsWith("CoreConcept")).stream().map(SourceClass::getName)
+				.collect(Collectors.toList()));
+		write("com/acme/domain/Pokemon.java", "package com.acme.domain; public class Pokemon {}");
+		// the files are read again
+		assertEquals(0, model.getClassesInBatches(null, "CoreConcept", 1,
+				a -> a.getType().endsWith("CoreConcept")).size());
+	}
+
+	private void write(String path, String content) throws IOException {
+		final File file = new File(folder.getRoot(), path);
+		file.getParentFile().mkdirs();
+		Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static List<String> names(List<SourceFile> files) {
+		return files.stream().map(f -> new File(f.getRelativePath()).getName()).collect(Collectors.toList());
+	}
+}
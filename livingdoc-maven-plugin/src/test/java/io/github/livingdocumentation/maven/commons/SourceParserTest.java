@@ -0,0 +1,106 @@
+package io.github.livingdocumentation.maven.commons;
+
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+
+public class SourceParserTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void parallel_parsing_gives_the_classes_of_sequential_parsing_in_the_same_order() throws IOException {
+		final List<SourceFile> files = new ArrayList<>();
+		files.add(source("acme/annotations/Tour.java", "package acme.annotations; public @interface Tour {}"));
+		for (int i = 0; i < 40; i++) {
+			files.add(source("acme/domain/Class" + i + ".java", "package acme.domain;\nimport acme.annotations.*;\n"
+					+ "/** Class " + i + " */ public class Class" + i + " {\n"
+					+ "  @Tour(name = \"a\", rank = " + i + ") public void step() { run(); }\n}"));
+		}
+
+		final List<SourceClass> sequential = SourceParser.parse(files, 1, new SystemStreamLog());
+		final List<SourceClass> parallel = SourceParser.parse(files, 4, new SystemStreamLog());
+
+		assertEquals(41, parallel.size());
+		assertEquals(describe(sequential), describe(parallel));
+		final SourceClass.Method step = parallel.get(10).getMethods().get(0);
+		assertEquals("acme.annotations.Tour", step.getAnnotations().get(0).getType());
+		assertEquals("9", step.getAnnotations().get(0).getNamedParameter("rank"));
+		assertEquals("\"a\"", step.getAnnotations().get(0).getNamedParameter("name"));
+	}
+
+	@Test
+	public void annotation_types_are_resolved_from_the_imports_then_the_package_of_the_class() throws IOException {
+		final List<SourceFile> files = new ArrayList<>();
+		files.add(source("acme/domain/Local.java", "package acme.domain; public @interface Local {}"));
+		files.add(source("acme/annotations/Local.java", "package acme.annotations; public @interface Local {}"));
+		files.add(source("acme/domain/Pokemon.java", "package acme.domain;\nimport acme.annotations.*;\n"
+				+ "@Local @Deprecated @Unknown public class Pokemon {}"));
+		files.add(source("acme/domain/Trainer.java", "package acme.domain;\nimport acme.annotations.Local;\n"
+				+ "@Local public class Trainer {}"));
+
+		final List<SourceClass> classes = SourceParser.parse(files, 1, new SystemStreamLog());
+
+		// the package of the class comes before the on demand imports
+		assertEquals("acme.domain.Local", classes.get(2).getAnnotations().get(0).getType());
+		assertEquals("java.lang.Deprecated", classes.get(2).getAnnotations().get(1).getType());
+		assertEquals("Unknown", classes.get(2).getAnnotations().get(2).getType());
+		assertEquals("acme.annotations.Local", classes.get(3).getAnnotations().get(0).getType());
+	}
+
+	@Test
+	public void batches_keep_only_the_classes_and_the_methods_with_a_relevant_annotation() throws IOException {
+		final List<SourceFile> files = new ArrayList<>();
+		files.add(source("acme/annotations/Tour.java", "package acme.annotations; public @interface Tour {}"));
+		for (int i = 0; i < 10; i++) {
+			files.add(source("acme/domain/Class" + i + ".java", "package acme.domain;\nimport acme.annotations.*;\n"
+					+ "public class Class" + i + " {\n"
+					+ (i % 3 == 0 ? "  @Tour(name = \"a\", rank = " + i + ") public void step() { run(); }\n" : "")
+					+ "  public void other() { run(); }\n}"));
+		}
+		final List<SourceFile> library = files.subList(0, 1);
+
+		final List<SourceClass> classes = SourceParser.parseInBatches(files, library, 3,
+				a -> a.getType().equals("acme.annotations.Tour"), new SystemStreamLog());
+
+		assertEquals(Arrays.asList("acme.domain.Class0", "acme.domain.Class3", "acme.domain.Class6",
+				"acme.domain.Class9"), classes.stream().map(SourceClass::getFullyQualifiedName)
+				.collect(Collectors.toList()));
+		final SourceClass.Method step = SourceParser.parse(files, 1, new SystemStreamLog()).get(4).getMethods().get(0);
+		assertEquals(1, classes.get(1).getMethods().size());
+		final SourceClass.Method kept = classes.get(1).getMethods().get(0);
+		assertEquals(step.getCallSignature() + step.getCodeBlock() + step.getLineNumber(),
+				kept.getCallSignature() + kept.getCodeBlock() + kept.getLineNumber());
+		assertEquals("3", kept.getAnnotations().get(0).getNamedParameter("rank"));
+	}
+
+	private SourceFile source(String path, String content) throws IOException {
+		final File file = new File(folder.getRoot(), path);
+		file.getParentFile().mkdirs();
+		Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+		return new SourceFile(folder.getRoot(), path, StandardCharsets.UTF_8);
+	}
+
+	private static List<String> describe(List<SourceClass> classes) {
+		return classes.stream()
+				.map(c -> c.getFullyQualifiedName() + " " + c.getComment() + " " + c.getLineNumber() + " "
+						+ c.getMethods().stream()
+						.map(m -> m.getCallSignature() + m.getCodeBlock() + m.getLineNumber()
+								+ m.getAnnotations().get(0).getType())
+						.collect(Collectors.toList()))
+				.collect(Collectors.toList());
+	}
+}
@@ -0,0 +1,57 @@
+package io.github.livingdocumentation.maven.commons;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SourceStampsTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void reads_only_the_files_whose_size_or_modification_time_changed() throws IOException {
+		final File stampsFile = new File(folder.getRoot(), "cache/glossary.stamps");
+		final File file = write("Pokemon.java", "class Pokemon {}", 1_000_000L);
+		final SourceStamps first = SourceStamps.load(stampsFile);
+		final long hash = first.hash(source(file), false);
+		assertTrue(first.isChanged());
+		first.save(stampsFile);
+
+		// same size and modification time: the content is not read again
+		write("Pokemon.java", "class Pikachu {}", 1_000_000L);
+		final SourceStamps unchanged = SourceStamps.load(stampsFile);
+		assertEquals(hash, unchanged.hash(source(file), false));
+		assertFalse(unchanged.isChanged());
+
+		// touched: read again, same hash
+		write("Pokemon.java", "class Pokemon {}", 2_000_000L);
+		final SourceStamps touched = SourceStamps.load(stampsFile);
+		assertEquals(hash, touched.hash(source(file), false));
+		assertTrue(touched.isChanged());
+
+		write("Pokemon.java", "class Pikachu {}", 3_000_000L);
+		assertNotEquals(hash, SourceStamps.load(stampsFile).hash(source(file), false));
+	}
+
+	private File write(String name, String content, long lastModified) throws IOException {
+		final File file = new File(folder.getRoot(), name);
+		Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+		assertTrue(file.setLastModified(lastModified));
+		return file;
+	}
+
+	private SourceFile source(File file) {
+		return new SourceFile(folder.getRoot(), file.getName(), StandardCharsets.UTF_8);
+	}
+}
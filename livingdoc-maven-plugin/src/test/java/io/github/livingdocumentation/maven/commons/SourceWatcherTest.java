@@ -0,0 +1,43 @@
+package io.github.livingdocumentation.maven.commons;
+
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertTrue;
+
+public class SourceWatcherTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void a_burst_of_changes_is_reported_at_once() throws Exception {
+		final File sources = folder.newFolder("src");
+		try (SourceWatcher watcher = new SourceWatcher(Collections.singletonList(sources), new SystemStreamLog())) {
+			final CompletableFuture<Set<Path>> changes = CompletableFuture.supplyAsync(() -> {
+				try {
+					return watcher.take(200);
+				} catch (InterruptedException e) {
+					throw new IllegalStateException(e);
+				}
+			});
+			final File pokemon = new File(sources, "acme/Pokemon.java");
+			pokemon.getParentFile().mkdirs();
+			Thread.sleep(50);
+			Files.write(pokemon.toPath(), "class Pokemon {}".getBytes(StandardCharsets.UTF_8));
+
+			assertTrue(changes.get(10, TimeUnit.SECONDS).contains(new File(sources, "acme").toPath()));
+		}
+	}
+}
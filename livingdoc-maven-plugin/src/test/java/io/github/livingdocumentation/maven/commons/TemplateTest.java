@@ -0,0 +1,53 @@
+package io.github.livingdocumentation.maven.commons;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.text.MessageFormat;
+
+import static io.github.livingdocumentation.maven.commons.Template.text;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+@SuppressWarnings("deprecation")
+public class TemplateTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void replaces_numbered_placeholders_only() {
+        final Template template = Template.parse("function() { return \"{1}\"; } {0}{x} {} {2}");
+        assertEquals("function() { return \"b {0}\"; } a{x} {} {2}", template.evaluate("a", "b {0}"));
+    }
+
+    @Test
+    public void evaluates_the_resources_like_the_previous_templates() {
+        final String content = "digraph G {a -> b; b -> c; c -> a;}";
+        assertEquals(SimpleTemplate.evaluate(SimpleTemplate.readResource("/viz-template.html"), "Living Diagram", content),
+                Template.of("/viz-template.html").evaluate("Living Diagram", content));
+        assertEquals(MessageFormat.format(SimpleTemplate.readResource("/strapdown-template.html"), "Tour", "united", content),
+                Template.of("/strapdown-template.html").evaluate("Tour", "united", content));
+    }
+
+    @Test
+    public void caches_the_resources() {
+        assertSame(Template.of("/wordcloud-template.html"), Template.of("/wordcloud-template.html"));
+    }
+
+    @Test
+    public void streams_the_contents_into_the_file() throws Exception {
+        final File file = new File(folder.getRoot(), "page.html");
+        Template.parse("<h1>{0}</h1><p>{1}</p>").write(file, text("Title"), out -> {
+            for (int i = 0; i < 3; i++) {
+                out.write("line " + i + ";");
+            }
+        });
+        assertEquals("<h1>Title</h1><p>line 0;line 1;line 2;</p>" + System.lineSeparator(),
+                new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,39 @@
+package io.github.livingdocumentation.maven.commons;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TermCountsTest {
+
+	@Test
+	public void counts_terms_given_as_chars_or_strings() {
+		final TermCounts counts = new TermCounts(4);
+		for (int i = 0; i < 10_000; i++) {
+			final char[] chars = ("x term" + (i % 1000) + " y").toCharArray();
+			final int length = chars.length - 4;
+			assertEquals(i / 1000 + 1, counts.add(chars, 2, length, TermCounts.hash(chars, 2, length)));
+		}
+		assertEquals(1000, counts.size());
+		assertEquals(10, counts.get("term42"));
+		assertEquals(12, counts.add("term42", 2));
+		assertEquals(12, counts.max());
+		assertEquals(0, counts.get("unknown"));
+	}
+
+	@Test
+	public void drops_terms_whose_count_falls_to_zero() {
+		final TermCounts counts = new TermCounts();
+		counts.add("pokemon", 2);
+		counts.add("trainer", 1);
+		counts.add("pokemon", -2);
+
+		assertEquals(1, counts.size());
+		assertEquals(1, counts.asMap().size());
+		final char[] chars = "pokemon".toCharArray();
+		assertTrue(counts.contains(chars, 0, 7, "pokemon".hashCode()));
+		assertFalse(counts.contains(chars, 0, 4, "poke".hashCode()));
+	}
+}
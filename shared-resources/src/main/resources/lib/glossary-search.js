@@ -0,0 +1,120 @@
+/*
+ * Search of the paged glossary: each word of the query loads the shard of the index holding the words starting
+ * with its first character, once, then the entries matching every word of the query are listed.
+ */
+(function () {
+  var search = document.getElementById('glossary-search');
+  if (!search) {
+    return;
+  }
+  var base = search.getAttribute('data-index');
+  var input = search.getElementsByTagName('input')[0];
+  var results = search.getElementsByTagName('ul')[0];
+  // ascii punctuation and spaces, the same in GlossaryIndex
+  var separators = /[\x00-\x2F\x3A-\x40\x5B-\x60\x7B-\x7F]+/;
+  var maxResults = 50;
+  var shards = {};
+  var waiting = {};
+  var latest = 0;
+
+  window.glossaryShard = function (key, shard) {
+    shards[key] = shard;
+    var callbacks = waiting[key] || [];
+    delete waiting[key];
+    for (var i = 0; i < callbacks.length; i++) {
+      callbacks[i](shard);
+    }
+  };
+
+  function load(key, callback) {
+    if (shards[key]) {
+      callback(shards[key]);
+      return;
+    }
+    if (!waiting[key]) {
+      waiting[key] = [];
+      var script = document.createElement('script');
+      script.src = base + key + '.js';
+      script.onerror = function () {
+        window.glossaryShard(key, {entries: [], words: {}});
+      };
+      document.head.appendChild(script);
+    }
+    waiting[key].push(callback);
+  }
+
+  function shardKey(word) {
+    return /[a-z0-9]/.test(word.charAt(0)) ? word.charAt(0) : '_';
+  }
+
+  // the entries of the words starting with the query word, by link
+  function matches(word, callback) {
+    load(shardKey(word), function (shard) {
+      var found = {};
+      for (var key in shard.words) {
+        if (key.lastIndexOf(word, 0) === 0) {
+          var list = shard.words[key];
+          for (var i = 0; i < list.length; i++) {
+            var entry = shard.entries[list[i]];
+            found[entry[1]] = entry[0];
+          }
+        }
+      }
+      callback(found);
+    });
+  }
+
+  function show(query, found) {
+    var prefix = query.toLowerCase();
+    var links = Object.keys(found).sort(function (a, b) {
+      var aFirst = found[a].toLowerCase().lastIndexOf(prefix, 0) === 0;
+      var bFirst = found[b].toLowerCase().lastIndexOf(prefix, 0) === 0;
+      return aFirst !== bFirst ? (aFirst ? -1 : 1) : found[a].localeCompare(found[b]);
+    });
+    results.innerHTML = '';
+    for (var i = 0; i < Math.min(links.length, maxResults); i++) {
+      var item = document.createElement('li');
+      var link = document.createElement('a');
+      link.href = links[i];
+      link.textContent = found[links[i]];
+      item.appendChild(link);
+      results.appendChild(item);
+    }
+    if (links.length > maxResults) {
+      var more = document.createElement('li');
+      more.textContent = (links.length - maxResults) + ' more';
+      results.appendChild(more);
+    }
+  }
+
+  input.addEventListener('input', function () {
+    var query = input.value.trim();
+    var words = query.toLowerCase().split(separators).filter(function (word) {
+      return word.length > 0;
+    });
+    var search = ++latest;
+    if (words.length === 0) {
+      results.innerHTML = '';
+      return;
+    }
+    var pending = words.length;
+    var all = null;
+    words.forEach(function (word) {
+      matches(word, function (found) {
+        if (all === null) {
+          all = found;
+        } else {
+          for (var link in all) {
+            if (!(link in found)) {
+              delete all[link];
+            }
+          }
+        }
+        // a newer query may have been typed while the shards were loading
+        if (--pending === 0 && search === latest) {
+          show(query, all);
+        }
+      });
+    });
+  });
+})();
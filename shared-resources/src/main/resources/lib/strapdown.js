@@ -370,21 +370,23 @@ var PR=win['PR']={'createSimpleLexer':createSimpleLexer,'registerLangHandler':re
   var theme = markdownEl.getAttribute('theme') || 'bootstrap';
   theme = theme.toLowerCase();
 
-  // Stylesheets
-  var linkEl = document.createElement('link');
-  linkEl.href = originBase + '/themes/'+theme+'.min.css';
-  linkEl.rel = 'stylesheet';
-  document.head.appendChild(linkEl);
+  // Stylesheets, unless the page links its own
+  if (!document.querySelector('link[rel=stylesheet]')) {
+    var linkEl = document.createElement('link');
+    linkEl.href = originBase + '/themes/'+theme+'.min.css';
+    linkEl.rel = 'stylesheet';
+    document.head.appendChild(linkEl);
 
-  var linkEl = document.createElement('link');
-  linkEl.href = originBase + '/strapdown.css';
-  linkEl.rel = 'stylesheet';
-  document.head.appendChild(linkEl);
+    var linkEl = document.createElement('link');
+    linkEl.href = originBase + '/strapdown.css';
+    linkEl.rel = 'stylesheet';
+    document.head.appendChild(linkEl);
 
-  var linkEl = document.createElement('link');
-  linkEl.href = originBase + '/themes/bootstrap-responsive.min.css';
-  linkEl.rel = 'stylesheet';
-  document.head.appendChild(linkEl);
+    var linkEl = document.createElement('link');
+    linkEl.href = originBase + '/themes/bootstrap-responsive.min.css';
+    linkEl.rel = 'stylesheet';
+    document.head.appendChild(linkEl);
+  }
 
   //////////////////////////////////////////////////////////////////////
   //